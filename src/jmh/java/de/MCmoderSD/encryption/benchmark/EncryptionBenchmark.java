@@ -0,0 +1,121 @@
+package de.MCmoderSD.encryption.benchmark;
+
+import de.MCmoderSD.encryption.core.Cache;
+import de.MCmoderSD.encryption.core.Encryption;
+import de.MCmoderSD.encryption.enums.Hash;
+import de.MCmoderSD.encryption.enums.Transformer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// Encrypt/decrypt of byte[] and Base64 Strings for every Transformer, payload size and cache scenario
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncryptionBenchmark {
+
+    // Constants
+    static final String PASSWORD = "benchmark-password";
+    static final long HIT_CACHE_ENTRIES = 16;                   // Few enough entries for a single cache segment
+    static final long HIT_CACHE_BYTES = 1024L * 1024 * 1024;    // Whole budget in that segment, holds the 16 MiB payloads
+
+    // Parameters, all Transformer constants by default
+    @Param
+    public Transformer transformer;
+
+    // All sizes are block aligned so ECB/CBC without padding can run as well
+    @Param({"16", "256", "4096", "65536", "1048576", "16777216"})
+    public int size;
+
+    // HIT reuses the same input with caching, MISS disables the cache, IV based modes never cache
+    @Param({"HIT", "MISS"})
+    public String cache;
+
+    // Attributes
+    private Encryption encryption;
+    private byte[] decryptedBytes;
+    private byte[] encryptedBytes;
+    private String decryptedString;
+    private String encryptedString;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        // Initialize Encryption
+        encryption = cache.equals("HIT")
+                ? new Encryption(PASSWORD, UTF_8, Hash.SHA256, transformer, HIT_CACHE_ENTRIES, HIT_CACHE_BYTES, null)
+                : new Encryption(PASSWORD, UTF_8, Hash.SHA256, transformer, 0, 0, null);
+
+        // Random payloads, the String is ASCII so its encoded size equals size
+        var random = new Random(size);
+        decryptedBytes = new byte[size];
+        random.nextBytes(decryptedBytes);
+        var chars = new char[size];
+        for (var i = 0; i < size; i++) chars[i] = (char) ('a' + random.nextInt(26));
+        decryptedString = new String(chars);
+
+        // Encrypt once, this also warms the cache for the HIT scenario
+        encryptedBytes = encryption.encrypt(decryptedBytes);
+        encryptedString = encryption.encrypt(decryptedString);
+
+        // An entry over the segment budget would turn every HIT iteration into a miss
+        if (encryption.getEncryptCache().getRejections() + encryption.getDecryptCache().getRejections() > 0) throw new IllegalStateException("Cache rejected the " + size + " byte payload");
+    }
+
+    @Benchmark
+    public byte[] encryptBytes() {
+        return encryption.encrypt(decryptedBytes);
+    }
+
+    @Benchmark
+    public byte[] decryptBytes() {
+        return encryption.decrypt(encryptedBytes);
+    }
+
+    @Benchmark
+    public String encryptString() {
+        return encryption.encrypt(decryptedString);
+    }
+
+    @Benchmark
+    public String decryptString() {
+        return encryption.decrypt(encryptedString);
+    }
+
+    // All threads share one instance, measures pool and cache contention
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] encryptBytesContended() {
+        return encryption.encrypt(decryptedBytes);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] decryptBytesContended() {
+        return encryption.decrypt(encryptedBytes);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String encryptStringContended() {
+        return encryption.encrypt(decryptedString);
+    }
+}
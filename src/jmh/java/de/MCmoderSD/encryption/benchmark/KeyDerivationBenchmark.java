@@ -0,0 +1,64 @@
+package de.MCmoderSD.encryption.benchmark;
+
+import de.MCmoderSD.encryption.core.Encryption;
+import de.MCmoderSD.encryption.core.KeyDerivation;
+import de.MCmoderSD.encryption.enums.Hash;
+import de.MCmoderSD.encryption.enums.Transformer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// Cost of constructing an Encryption, dominated by key derivation and cache setup
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeyDerivationBenchmark {
+
+    // Parameters, the Hash constants and the salted KDFs with their default cost, one Transformer per Algorithm
+    @Param({"SHA256", "SHA3_256", "PBKDF2_SHA256", "SCRYPT"})
+    public String derivation;
+
+    @Param({"AES_ECB_PKCS5", "DES_ECB_PKCS5", "DESede_ECB_PKCS5"})
+    public Transformer transformer;
+
+    // Attributes
+    private final Random random = new Random(42);
+    private Hash hash;
+    private KeyDerivation keyDerivation;
+
+    // Fresh salt per call, the process wide key cache would answer every KDF call after the first one
+    @Setup(Level.Invocation)
+    public void setup() {
+        var salt = new byte[16];
+        random.nextBytes(salt);
+        keyDerivation = switch (derivation) {
+            case "PBKDF2_SHA256" -> KeyDerivation.pbkdf2(salt);
+            case "SCRYPT" -> KeyDerivation.scrypt(salt);
+            default -> null;
+        };
+        hash = keyDerivation == null ? Hash.valueOf(derivation) : null;
+    }
+
+    @Benchmark
+    public Encryption construct() {
+        if (keyDerivation == null) return new Encryption(EncryptionBenchmark.PASSWORD, UTF_8, hash, transformer);
+        return new Encryption(EncryptionBenchmark.PASSWORD, UTF_8, keyDerivation, transformer);
+    }
+}
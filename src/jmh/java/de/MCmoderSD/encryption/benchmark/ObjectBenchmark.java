@@ -0,0 +1,81 @@
+package de.MCmoderSD.encryption.benchmark;
+
+import de.MCmoderSD.encryption.core.Encryption;
+import de.MCmoderSD.encryption.enums.Hash;
+import de.MCmoderSD.encryption.enums.Transformer;
+import de.MCmoderSD.encryption.serializer.BinarySerializer;
+import de.MCmoderSD.encryption.serializer.JavaSerializer;
+import de.MCmoderSD.encryption.serializer.Serializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// encryptObject and decryptObject with each Serializer, serialized sizes are not block aligned so ECB/CBC without padding are left out
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectBenchmark {
+
+    // Serializable payload
+    public record Payload(String name, long id, byte[] data) implements Serializable {
+    }
+
+    // Parameters
+    @Param({
+            "AES_ECB_PKCS5", "AES_CBC_PKCS5", "AES_CFB_PKCS5", "AES_CFB_NOPAD", "AES_OFB_PKCS5", "AES_OFB_NOPAD", "AES_CTR_NOPAD", "AES_GCM_NOPAD",
+            "DES_ECB_PKCS5", "DES_CBC_PKCS5", "DES_CFB_PKCS5", "DES_CFB_NOPAD", "DES_OFB_PKCS5", "DES_OFB_NOPAD", "DES_CTR_NOPAD",
+            "DESede_ECB_PKCS5", "DESede_CBC_PKCS5", "DESede_CFB_PKCS5", "DESede_CFB_NOPAD", "DESede_OFB_PKCS5", "DESede_OFB_NOPAD", "DESede_CTR_NOPAD",
+            "CHACHA20_POLY1305"
+    })
+    public Transformer transformer;
+
+    @Param({"16", "256", "4096", "65536", "1048576", "16777216"})
+    public int size;
+
+    @Param({"BINARY", "JAVA"})
+    public String format;
+
+    // Attributes
+    private Serializer serializer;
+    private Encryption encryption;
+    private Payload payload;
+    private byte[] encryptedPayload;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        encryption = new Encryption(EncryptionBenchmark.PASSWORD, UTF_8, Hash.SHA256, transformer, 0, 0, null);
+        var data = new byte[size];
+        new Random(size).nextBytes(data);
+        payload = new Payload("benchmark", size, data);
+        serializer = format.equals("JAVA") ? JavaSerializer.INSTANCE : BinarySerializer.INSTANCE;
+        encryptedPayload = encryption.encryptObject(payload, serializer);
+    }
+
+    @Benchmark
+    public byte[] encryptObject() {
+        return encryption.encryptObject(payload, serializer);
+    }
+
+    @Benchmark
+    public Payload decryptObject() {
+        return encryption.decryptObject(encryptedPayload, Payload.class, serializer);
+    }
+}
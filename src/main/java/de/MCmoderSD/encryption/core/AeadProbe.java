@@ -0,0 +1,101 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Transformer;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+import static de.MCmoderSD.encryption.enums.Mode.GCM;
+import static de.MCmoderSD.encryption.enums.Transformer.AES_GCM_NOPAD;
+import static de.MCmoderSD.encryption.enums.Transformer.CHACHA20_POLY1305;
+
+// Picks the faster AEAD for the running JVM, AES-GCM wins with AES/CLMUL intrinsics and ChaCha20-Poly1305 without them
+@SuppressWarnings("unused")
+public final class AeadProbe {
+
+    // Defaults
+    public static final Duration DEFAULT_BUDGET = Duration.ofMillis(20);   // Measurement per candidate, after warmup
+    private static final int PROBE_SIZE = 16384;
+
+    // Warmup by time, at least WARMUP_ITERATIONS calls so a slow first call cannot skip it
+    private static final long WARMUP_NANOS = Duration.ofMillis(5).toNanos();
+    private static final int WARMUP_ITERATIONS = 100;
+    private static final int WARMUP_SIZE = 1024;
+
+    // Candidates in order of preference on a tie
+    private static final Transformer[] CANDIDATES = {AES_GCM_NOPAD, CHACHA20_POLY1305};
+
+    // Measured once on first use
+    private static final class Holder {
+        private static final Transformer FASTEST = probe(DEFAULT_BUDGET);
+    }
+
+    // Constructor
+    private AeadProbe() {
+    }
+
+    // Faster AEAD of this JVM, the probe runs on the first call only and takes about 50 ms after the JCE providers are loaded
+    public static Transformer fastest() {
+        return Holder.FASTEST;
+    }
+
+    // Run the probe with a measurement budget per candidate
+    public static Transformer probe(Duration budget) {
+        var fastest = CANDIDATES[0];
+        var best = 0d;
+        for (var transformer : CANDIDATES) {
+            var throughput = throughput(transformer, budget);
+            if (throughput > best) {
+                best = throughput;
+                fastest = transformer;
+            }
+        }
+        return fastest;
+    }
+
+    // Encrypted bytes per second of a transformation, 0 if the JVM does not provide it
+    public static double throughput(Transformer transformer, Duration budget) {
+
+        // Check Parameters
+        if (!transformer.isAuthenticated()) throw new IllegalArgumentException("Transformer is not an AEAD: " + transformer);
+        if (budget.isNegative() || budget.isZero()) throw new IllegalArgumentException("Budget must be positive");
+
+        try {
+            var random = new SecureRandom();
+            var keyBytes = new byte[transformer.getAlgorithm().getKeySizes().getLast()];
+            random.nextBytes(keyBytes);
+            var key = new SecretKeySpec(keyBytes, transformer.getAlgorithm().name());
+            var nonce = new byte[transformer.getIVLength()];
+            var input = new byte[PROBE_SIZE];
+            var output = new byte[PROBE_SIZE + transformer.getTagLength()];
+            var cipher = Cipher.getInstance(transformer.getTransformation());
+
+            // Warm up for a few ms so the first interpreted calls stay out of the measurement, then measure
+            run(cipher, transformer, key, nonce, input, WARMUP_SIZE, output, WARMUP_ITERATIONS, WARMUP_NANOS);
+            var start = System.nanoTime();
+            var bytes = run(cipher, transformer, key, nonce, input, PROBE_SIZE, output, 1, budget.toNanos());
+            return bytes * 1e9 / (System.nanoTime() - start);
+        } catch (GeneralSecurityException e) {
+            return 0;
+        }
+    }
+
+    // Encrypt at least the given number of times and until the time is up, a fresh nonce per call as both ciphers refuse reuse
+    private static long run(Cipher cipher, Transformer transformer, SecretKeySpec key, byte[] nonce, byte[] input, int length, byte[] output, int iterations, long nanos) throws GeneralSecurityException {
+        var bytes = 0L;
+        var deadline = System.nanoTime() + nanos;
+        for (var count = 0; count < iterations || System.nanoTime() < deadline; count++) {
+            for (var i = nonce.length - 1; i >= 0 && ++nonce[i] == 0; i--);
+            var spec = transformer.getMode() == GCM ? new GCMParameterSpec(transformer.getTagLength() * 8, nonce) : new IvParameterSpec(nonce);
+            cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+            cipher.doFinal(input, 0, length, output, 0);
+            bytes += length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,247 @@
+package de.MCmoderSD.encryption.core;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+// Encrypt-then-MAC with HMAC-SHA256 over the full Encryption output
+// Format: IV | ciphertext (| GCM tag) | HMAC (32), the MAC is checked in constant time before anything is decrypted
+@SuppressWarnings("unused")
+public class AuthenticatedEncryption {
+
+    // Constants
+    public static final String ALGORITHM = "HmacSHA256";
+    public static final int TAG_LENGTH = 32;
+    private static final byte[] LABEL = "de.MCmoderSD.encryption.AuthenticatedEncryption".getBytes(StandardCharsets.UTF_8);
+
+    // Attributes
+    private final Encryption encryption;
+    private final Pool<Mac> macs;
+
+    // Constructor
+    public AuthenticatedEncryption(Encryption encryption) {
+
+        // Set Attributes
+        this.encryption = encryption;
+
+        // Derive subkey: HMAC(key, label), the cipher key is never used as MAC key
+        var mac = createMac(new SecretKeySpec(encryption.getKey().getEncoded(), ALGORITHM));
+        var subkey = new SecretKeySpec(mac.doFinal(LABEL), ALGORITHM);
+        macs = new Pool<>(() -> createMac(subkey));
+    }
+
+    private static Mac createMac(SecretKeySpec key) {
+        try {
+            var mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Failed to create MAC", e);
+        }
+    }
+
+    // Encrypt and append the MAC of IV and ciphertext, the MAC is updated chunk by chunk as the ciphertext is written
+    // Compressed like Encryption.encrypt(byte[]) so the stream API can read the result and the other way round
+    public byte[] encrypt(byte[] decryptedData) {
+        var compression = encryption.getCompression();
+        if (compression != null) decryptedData = compression.compress(decryptedData);
+        var output = new byte[encryption.outputSize(decryptedData.length) + TAG_LENGTH];
+        var mac = macs.borrow();
+        int length;
+        try {
+            length = encryption.encrypt(decryptedData, 0, decryptedData.length, output, 0, mac);
+            mac.doFinal(output, length);
+        } catch (ShortBufferException e) {
+            mac.reset();
+            throw new RuntimeException("Failed to authenticate data", e);
+        } catch (RuntimeException e) {
+            mac.reset();    // Do not return a half updated MAC to the pool
+            throw e;
+        } finally {
+            macs.release(mac);
+        }
+        return length + TAG_LENGTH == output.length ? output : Arrays.copyOf(output, length + TAG_LENGTH);
+    }
+
+    // Verify the MAC, then decrypt
+    public byte[] decrypt(byte[] encryptedData) {
+        verify(encryptedData);
+        var length = encryptedData.length - TAG_LENGTH;
+        var output = new byte[encryption.decryptOutputSize(length)];
+        var written = encryption.decrypt(encryptedData, 0, length, output, 0);
+        var compression = encryption.getCompression();
+        if (compression != null) return compression.decompress(output, 0, written);
+        return written == output.length ? output : Arrays.copyOf(output, written);
+    }
+
+    // Check the MAC without decrypting
+    public boolean isAuthentic(byte[] encryptedData) {
+        if (encryptedData.length < TAG_LENGTH) return false;
+        var mac = macs.borrow();
+        try {
+            mac.update(encryptedData, 0, encryptedData.length - TAG_LENGTH);
+            var expected = mac.doFinal();
+            return MessageDigest.isEqual(expected, Arrays.copyOfRange(encryptedData, encryptedData.length - TAG_LENGTH, encryptedData.length));
+        } finally {
+            macs.release(mac);
+        }
+    }
+
+    private void verify(byte[] encryptedData) {
+        if (!isAuthentic(encryptedData)) throw new RuntimeException("Failed to authenticate data", new AEADBadTagException("MAC mismatch"));
+    }
+
+    // Encrypt String to Base64
+    public String encrypt(String decryptedString) {
+        return Base64.getEncoder().encodeToString(encrypt(decryptedString.getBytes(encryption.getCharset())));
+    }
+
+    // Decrypt Base64 String
+    public String decrypt(String encryptedString) {
+        return new String(decrypt(Base64.getDecoder().decode(encryptedString)), encryption.getCharset());
+    }
+
+    // Wrap an OutputStream, ciphertext is MACed as it is written and the MAC is appended on close
+    public OutputStream encryptingOutputStream(OutputStream outputStream) {
+        return encryption.encryptingOutputStream(new MacOutputStream(outputStream, macs.borrow()));
+    }
+
+    // Wrap an InputStream, the trailing MAC is held back and verified when the input ends
+    // Read until end of stream before trusting the data, a mismatch fails the final read with an IOException
+    public InputStream decryptingInputStream(InputStream inputStream) {
+        return encryption.decryptingInputStream(new MacInputStream(inputStream, macs.borrow()));
+    }
+
+    // Getters
+    public Encryption getEncryption() {
+        return encryption;
+    }
+
+    // Updates the MAC with everything written and appends it on close
+    private final class MacOutputStream extends FilterOutputStream {
+
+        // Attributes
+        private final Mac mac;
+        private boolean closed;
+
+        // Constructor
+        private MacOutputStream(OutputStream outputStream, Mac mac) {
+            super(outputStream);
+            this.mac = mac;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            mac.update((byte) b);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            mac.update(b, off, len);
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                out.write(mac.doFinal());
+                macs.release(mac);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    // Holds back the trailing MAC, updates the MAC with everything passed on and verifies at end of input
+    private final class MacInputStream extends FilterInputStream {
+
+        // Attributes
+        private final Mac mac;
+        private final byte[] window;
+        private int count;
+        private boolean verified;
+
+        // Constructor
+        private MacInputStream(InputStream inputStream, Mac mac) {
+            super(inputStream);
+            this.mac = mac;
+            window = new byte[8192 + TAG_LENGTH];
+        }
+
+        @Override
+        public int read() throws IOException {
+            var single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+
+            // Keep more than the MAC in the window until the input ends
+            while (!verified && count <= TAG_LENGTH) {
+                var read = in.read(window, count, window.length - count);
+                if (read < 0) verify();
+                else count += read;
+            }
+
+            // Pass on everything before the held back MAC
+            var available = count - (verified ? 0 : TAG_LENGTH);
+            if (available <= 0) return -1;
+            var length = Math.min(len, available);
+            if (!verified) mac.update(window, 0, length);
+            System.arraycopy(window, 0, b, off, length);
+            System.arraycopy(window, length, window, 0, count - length);
+            count -= length;
+            return length;
+        }
+
+        // Input ended, compare the remaining window against the MAC in constant time
+        private void verify() throws IOException {
+            if (count < TAG_LENGTH) throw new IOException("Input too short");
+            mac.update(window, 0, count - TAG_LENGTH);
+            var expected = mac.doFinal();
+            if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(window, count - TAG_LENGTH, count))) throw new IOException("Failed to authenticate data", new AEADBadTagException("MAC mismatch"));
+            macs.release(mac);
+            count -= TAG_LENGTH;
+            verified = true;
+        }
+
+        @Override
+        public int available() {
+            return Math.max(0, count - (verified ? 0 : TAG_LENGTH));
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            var buffer = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                var read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) break;
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Encoding;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+// Deterministic HMAC-SHA256 tokens for equality lookups on encrypted columns, the payload itself can use a randomized mode
+@SuppressWarnings("unused")
+public class BlindIndex {
+
+    // Defaults
+    public static final String ALGORITHM = "HmacSHA256";
+    public static final int DEFAULT_LENGTH = 16;                // 128 bit tokens
+    public static final int MIN_LENGTH = 8;
+    public static final int MAX_LENGTH = 32;
+    private static final byte[] LABEL = "de.MCmoderSD.encryption.BlindIndex".getBytes(StandardCharsets.UTF_8);
+
+    // Attributes
+    private final String context;
+    private final int length;
+    private final Charset charset;
+    private final Pool<Mac> macs;
+
+    // Constructor
+    public BlindIndex(Encryption encryption, String context) {
+        this(encryption, context, DEFAULT_LENGTH);
+    }
+
+    // Full Constructor, each context (for example a column name) gets its own subkey
+    public BlindIndex(Encryption encryption, String context, int length) {
+
+        // Check Parameters
+        if (length < MIN_LENGTH || length > MAX_LENGTH) throw new IllegalArgumentException("Length must be between " + MIN_LENGTH + " and " + MAX_LENGTH);
+
+        // Set Attributes
+        this.context = context;
+        this.length = length;
+        charset = encryption.getCharset();
+
+        // Derive subkey: HMAC(key, label | 0 | context), the encryption key itself is never used as MAC key
+        var subkey = deriveSubkey(encryption.getKey().getEncoded(), context);
+        macs = new Pool<>(() -> createMac(subkey));
+    }
+
+    // Derive the MAC key for a context
+    private static SecretKeySpec deriveSubkey(byte[] key, String context) {
+        var mac = createMac(new SecretKeySpec(key, ALGORITHM));
+        mac.update(LABEL);
+        mac.update((byte) 0);
+        mac.update(context.getBytes(StandardCharsets.UTF_8));
+        return new SecretKeySpec(mac.doFinal(), ALGORITHM);
+    }
+
+    private static Mac createMac(SecretKeySpec key) {
+        try {
+            var mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Failed to create MAC", e);
+        }
+    }
+
+    // Token of a value
+    public byte[] token(byte[] value) {
+        var mac = macs.borrow();
+        try {
+            return token(mac, value);
+        } finally {
+            macs.release(mac);
+        }
+    }
+
+    // Token of a String, URL safe Base64 without padding
+    public String token(String value) {
+        return encode(token(value.getBytes(charset)));
+    }
+
+    // Tokens of a batch with a single MAC instance
+    public List<byte[]> tokens(List<byte[]> values) {
+        var tokens = new byte[values.size()][];
+        var mac = macs.borrow();
+        try {
+            for (var i = 0; i < tokens.length; i++) tokens[i] = token(mac, values.get(i));
+        } finally {
+            macs.release(mac);
+        }
+        return Arrays.asList(tokens);
+    }
+
+    public String[] tokens(String[] values) {
+        var tokens = new String[values.length];
+        var mac = macs.borrow();
+        try {
+            for (var i = 0; i < tokens.length; i++) tokens[i] = encode(token(mac, values[i].getBytes(charset)));
+        } finally {
+            macs.release(mac);
+        }
+        return tokens;
+    }
+
+    // Compute and truncate, doFinal resets the MAC for reuse
+    private byte[] token(Mac mac, byte[] value) {
+        mac.update(value);
+        if (length == MAX_LENGTH) return mac.doFinal();
+        var full = new byte[MAX_LENGTH];
+        try {
+            mac.doFinal(full, 0);
+        } catch (ShortBufferException e) {
+            throw new RuntimeException("Failed to compute token", e);
+        }
+        return Arrays.copyOf(full, length);
+    }
+
+    private static String encode(byte[] token) {
+        var encoding = Encoding.BASE64_URL_NO_PADDING;
+        var encoded = new byte[encoding.encodedLength(token.length)];
+        encoding.encode(token, 0, token.length, encoded, 0);
+        return new String(encoded, StandardCharsets.ISO_8859_1);
+    }
+
+    // Getters
+    public String getContext() {
+        return context;
+    }
+
+    public int getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,43 @@
+package de.MCmoderSD.encryption.core;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+// Growable byte buffer exposing its backing array, pooled to avoid intermediate copies
+@SuppressWarnings("unused")
+public class Buffer extends ByteArrayOutputStream {
+
+    // Buffers above this size are not returned to pools
+    public static final int MAX_POOLED_SIZE = 1024 * 1024;
+
+    // Constructor
+    public Buffer() {
+        super(256);
+    }
+
+    public Buffer(int capacity) {
+        super(capacity);
+    }
+
+    // Make sure the backing array holds at least capacity bytes
+    public byte[] ensureCapacity(int capacity) {
+        if (buf.length < capacity) buf = Arrays.copyOf(buf, Math.max(capacity, buf.length * 2));
+        return buf;
+    }
+
+    // Backing array, valid up to size()
+    public byte[] array() {
+        return buf;
+    }
+
+    // Set the number of valid bytes
+    public void size(int size) {
+        if (size < 0 || size > buf.length) throw new IndexOutOfBoundsException("Size " + size + " out of range");
+        count = size;
+    }
+
+    // Whether the buffer is small enough to be pooled again
+    public boolean isPoolable() {
+        return buf.length <= MAX_POOLED_SIZE;
+    }
+}
@@ -0,0 +1,279 @@
+package de.MCmoderSD.encryption.core;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+@SuppressWarnings("unused")
+public class Cache {
+
+    // Defaults
+    public static final long DEFAULT_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;    // 16 MiB
+
+    // Attributes
+    private final long maxEntries;
+    private final long maxBytes;
+    private final long ttl;                                             // Nanoseconds, 0 = no expiry
+    private final Segment[] segments;
+    private final int mask;
+
+    // Counters
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final LongAdder rejections;                                 // Entries larger than a segment budget
+    private volatile LongConsumer evictionListener;                     // Called with the number of evicted entries
+
+    // Constructor
+    public Cache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, null);
+    }
+
+    // Full Constructor, maxBytes is split across the segments so a single entry (key + value) larger than getMaxEntryBytes() is never stored
+    public Cache(long maxEntries, long maxBytes, Duration ttl) {
+
+        // Check Parameters
+        if (maxEntries < 0) throw new IllegalArgumentException("Max entries must not be negative");
+        if (maxBytes < 0) throw new IllegalArgumentException("Max bytes must not be negative");
+        if (ttl != null && ttl.isNegative()) throw new IllegalArgumentException("TTL must not be negative");
+
+        // Set Attributes
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttl = ttl == null ? 0 : ttl.toNanos();
+
+        // Stripe by processor count to keep lock contention low, power of two for masking
+        var count = Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2));
+        while (count > 1 && maxEntries / count < 16) count >>= 1;
+        segments = new Segment[count];
+        for (var i = 0; i < count; i++) segments[i] = new Segment(maxEntries / count, maxBytes / count);
+        mask = count - 1;
+
+        // Initialize Counters
+        hits = new LongAdder();
+        misses = new LongAdder();
+        evictions = new LongAdder();
+        rejections = new LongAdder();
+    }
+
+    // Spread hash so similar inputs land in different segments
+    private Segment segmentFor(int hash) {
+        return segments[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    // Lookup, returns a copy of the cached value or null
+    public byte[] get(byte[] key) {
+        if (!isEnabled()) return null;
+        var lookup = new Key(key);
+        var value = segmentFor(lookup.hash).get(lookup);
+        if (value == null) misses.increment();
+        else hits.increment();
+        return value == null ? null : value.clone();
+    }
+
+    // Store a copy of key and value, entries over the segment budget are counted as rejections
+    public void put(byte[] key, byte[] value) {
+        if (!isEnabled()) return;
+        if (key.length + value.length > getMaxEntryBytes()) {
+            rejections.increment();
+            return;
+        }
+        var entry = new Key(key.clone());
+        segmentFor(entry.hash).put(entry, value.clone());
+    }
+
+    // Count evictions and notify the listener
+    private void evicted(long count) {
+        evictions.add(count);
+        var listener = evictionListener;
+        if (listener != null) listener.accept(count);
+    }
+
+    // Remove all entries
+    public void clear() {
+        for (var segment : segments) segment.clear();
+    }
+
+    // Getters
+    public boolean isEnabled() {
+        return maxEntries > 0 && maxBytes > 0;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    // Largest entry (key + value) that fits into a segment
+    public long getMaxEntryBytes() {
+        return maxBytes / segments.length;
+    }
+
+    public int getSegments() {
+        return segments.length;
+    }
+
+    public Duration getTTL() {
+        return ttl == 0 ? null : Duration.ofNanos(ttl);
+    }
+
+    public long size() {
+        long size = 0;
+        for (var segment : segments) size += segment.size();
+        return size;
+    }
+
+    public long bytes() {
+        long bytes = 0;
+        for (var segment : segments) bytes += segment.bytes();
+        return bytes;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public double getHitRate() {
+        var hits = getHits();
+        var total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    // Setter, the listener runs under the segment lock and must be cheap
+    public void setEvictionListener(LongConsumer evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    // Content based key, hash is computed once
+    private static final class Key {
+
+        // Attributes
+        private final byte[] data;
+        private final int hash;
+
+        // Constructor
+        private Key(byte[] data) {
+            this.data = data;
+            hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return this == object || (object instanceof Key other && hash == other.hash && Arrays.equals(data, other.data));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Cached value with expiry timestamp
+    private record Entry(byte[] value, long expires) {
+    }
+
+    // LRU segment guarded by its own lock
+    private final class Segment {
+
+        // Attributes
+        private final long maxEntries;
+        private final long maxBytes;
+        private final LinkedHashMap<Key, Entry> map;
+        private final ReentrantLock lock;
+        private long bytes;
+
+        // Constructor
+        private Segment(long maxEntries, long maxBytes) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+            map = new LinkedHashMap<>(16, 0.75f, true);
+            lock = new ReentrantLock();
+        }
+
+        private byte[] get(Key key) {
+            lock.lock();
+            try {
+                var entry = map.get(key);
+                if (entry == null) return null;
+                if (ttl > 0 && System.nanoTime() - entry.expires > 0) {
+                    map.remove(key);
+                    bytes -= key.data.length + entry.value.length;
+                    evicted(1);
+                    return null;
+                }
+                return entry.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void put(Key key, byte[] value) {
+            lock.lock();
+            try {
+                var previous = map.put(key, new Entry(value, ttl > 0 ? System.nanoTime() + ttl : 0));
+                if (previous != null) bytes -= key.data.length + previous.value.length;
+                bytes += key.data.length + value.length;
+
+                // Evict least recently used entries until within budget
+                var iterator = map.entrySet().iterator();
+                var count = 0;
+                while ((map.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+                    var eldest = iterator.next();
+                    iterator.remove();
+                    bytes -= eldest.getKey().data.length + eldest.getValue().value.length;
+                    count++;
+                }
+                if (count > 0) evicted(count);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                map.clear();
+                bytes = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long bytes() {
+            lock.lock();
+            try {
+                return bytes;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
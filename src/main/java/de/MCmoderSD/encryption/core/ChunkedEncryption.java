@@ -0,0 +1,337 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Algorithm;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+import static javax.crypto.Cipher.DECRYPT_MODE;
+import static javax.crypto.Cipher.ENCRYPT_MODE;
+
+// Segmented AES-GCM, every chunk is sealed on its own so chunks can be processed in parallel and read individually
+// Format: version (1) | chunk size (4) | plaintext length (8) | base nonce (12) | chunk 0 | chunk 1 | ...
+// Chunk i: ciphertext | tag (16), nonce = base nonce XOR i, the header is authenticated as AAD of every chunk
+// Chunks are sealed under a subkey HMAC(key, label), so they never share nonce space with single-shot GCM under the same key
+@SuppressWarnings("unused")
+public class ChunkedEncryption {
+
+    // Constants
+    public static final byte VERSION = 1;
+    public static final int HEADER_LENGTH = 1 + 4 + 8 + 12;
+    public static final int NONCE_LENGTH = 12;
+    public static final int TAG_LENGTH = 16;
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;     // 64 KiB
+    private static final long REGION_SIZE = 64L * 1024 * 1024;  // Mapped region per file task
+    private static final byte[] LABEL = "de.MCmoderSD.encryption.ChunkedEncryption".getBytes(StandardCharsets.UTF_8);
+
+    // Attributes
+    private final SecretKeySpec key;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final Pool<Cipher> ciphers;
+
+    // Constructor
+    public ChunkedEncryption(Encryption encryption) {
+        this(encryption, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public ChunkedEncryption(Encryption encryption, int chunkSize) {
+        this(encryption, chunkSize, ForkJoinPool.commonPool());
+    }
+
+    // Full Constructor
+    public ChunkedEncryption(Encryption encryption, int chunkSize, ForkJoinPool pool) {
+
+        // Check Parameters
+        if (encryption.getAlgorithm() != Algorithm.AES) throw new IllegalArgumentException("Chunked encryption requires an AES key");
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive");
+
+        // Set Attributes
+        key = deriveSubkey(encryption.getKey());
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+        ciphers = new Pool<>(ChunkedEncryption::createCipher, pool.getParallelism() * 2);
+    }
+
+    // Derive the chunk key: HMAC(key, label) truncated to the AES key size
+    private static SecretKeySpec deriveSubkey(SecretKeySpec key) {
+        try {
+            var encoded = key.getEncoded();
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(encoded, "HmacSHA256"));
+            return new SecretKeySpec(Arrays.copyOf(mac.doFinal(LABEL), encoded.length), "AES");
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Failed to derive chunk key", e);
+        }
+    }
+
+    // Create an uninitialized GCM cipher, every chunk needs its own nonce
+    private static Cipher createCipher() {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new RuntimeException("Failed to create cipher", e);
+        }
+    }
+
+    // Number of chunks for a plaintext length, empty input still has one chunk carrying a tag
+    public long chunkCount(long plaintextLength) {
+        return Math.max(1, (plaintextLength + chunkSize - 1) / chunkSize);
+    }
+
+    // Total encrypted size for a plaintext length
+    public long encryptedSize(long plaintextLength) {
+        return HEADER_LENGTH + plaintextLength + chunkCount(plaintextLength) * TAG_LENGTH;
+    }
+
+    // Encrypt byte[] in parallel
+    public byte[] encrypt(byte[] data) {
+        var size = encryptedSize(data.length);
+        if (size > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Input too large, use the file variant");
+        var output = new byte[(int) size];
+        var header = writeHeader(output, data.length);
+        var chunks = chunkCount(data.length);
+        run(chunks, index -> {
+            var offset = index * chunkSize;
+            var length = (int) Math.min(chunkSize, data.length - offset);
+            seal(header, index, ByteBuffer.wrap(data, (int) offset, length), ByteBuffer.wrap(output, (int) (HEADER_LENGTH + offset + index * TAG_LENGTH), length + TAG_LENGTH));
+        });
+        return output;
+    }
+
+    // Decrypt byte[] in parallel
+    public byte[] decrypt(byte[] data) {
+        var header = readHeader(ByteBuffer.wrap(data));
+        var length = plaintextLength(header, data.length);
+        var output = new byte[(int) length];
+        run(chunkCount(length), index -> openChunk(header, index, data, output, (int) (index * chunkSize)));
+        return output;
+    }
+
+    // Decrypt a single chunk without touching the others
+    public byte[] decryptChunk(byte[] data, long index) {
+        var header = readHeader(ByteBuffer.wrap(data));
+        var length = plaintextLength(header, data.length);
+        if (index < 0 || index >= chunkCount(length)) throw new IndexOutOfBoundsException("Chunk " + index + " out of range");
+        var output = new byte[chunkLength(length, index)];
+        openChunk(header, index, data, output, 0);
+        return output;
+    }
+
+    // Encrypt a file through memory mapped regions in parallel, returns the number of bytes written
+    public long encrypt(Path input, Path output) {
+        try (var in = FileChannel.open(input, READ); var out = FileChannel.open(output, READ, WRITE, CREATE, TRUNCATE_EXISTING)) {
+
+            // Write header
+            var length = in.size();
+            var headerBytes = new byte[HEADER_LENGTH];
+            var header = writeHeader(headerBytes, length);
+            out.write(ByteBuffer.wrap(headerBytes), 0);
+
+            // Every region covers whole chunks
+            var chunksPerRegion = Math.max(1, REGION_SIZE / chunkSize);
+            var chunks = chunkCount(length);
+            run((chunks + chunksPerRegion - 1) / chunksPerRegion, region -> {
+                var first = region * chunksPerRegion;
+                var last = Math.min(chunks, first + chunksPerRegion);
+                var plainOffset = first * chunkSize;
+                var plainLength = Math.min(length, last * chunkSize) - plainOffset;
+                try {
+                    var source = in.map(READ_ONLY, plainOffset, plainLength);
+                    var target = out.map(READ_WRITE, HEADER_LENGTH + plainOffset + first * TAG_LENGTH, plainLength + (last - first) * TAG_LENGTH);
+                    for (var index = first; index < last; index++) {
+                        var offset = (int) ((index - first) * chunkSize);
+                        var chunk = chunkLength(length, index);
+                        seal(header, index, source.slice(offset, chunk), target.slice(offset + (int) (index - first) * TAG_LENGTH, chunk + TAG_LENGTH));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to map region", e);
+                }
+            });
+            return encryptedSize(length);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encrypt file", e);
+        }
+    }
+
+    // Decrypt a file through memory mapped regions in parallel, returns the number of bytes written
+    public long decrypt(Path input, Path output) {
+        try (var in = FileChannel.open(input, READ); var out = FileChannel.open(output, READ, WRITE, CREATE, TRUNCATE_EXISTING)) {
+
+            // Read header
+            var headerBuffer = ByteBuffer.allocate(HEADER_LENGTH);
+            while (headerBuffer.hasRemaining()) if (in.read(headerBuffer, headerBuffer.position()) < 0) throw new IOException("Input too short");
+            var header = readHeader(headerBuffer.flip());
+            var length = plaintextLength(header, in.size());
+
+            // Every region covers whole chunks
+            var chunksPerRegion = Math.max(1, REGION_SIZE / chunkSize);
+            var chunks = chunkCount(length);
+            run((chunks + chunksPerRegion - 1) / chunksPerRegion, region -> {
+                var first = region * chunksPerRegion;
+                var last = Math.min(chunks, first + chunksPerRegion);
+                var plainOffset = first * chunkSize;
+                var plainLength = Math.min(length, last * chunkSize) - plainOffset;
+                try {
+                    var source = in.map(READ_ONLY, HEADER_LENGTH + plainOffset + first * TAG_LENGTH, plainLength + (last - first) * TAG_LENGTH);
+                    var target = plainLength == 0 ? ByteBuffer.allocate(0) : out.map(READ_WRITE, plainOffset, plainLength);
+                    for (var index = first; index < last; index++) {
+                        var offset = (int) ((index - first) * chunkSize);
+                        var chunk = chunkLength(length, index);
+                        open(header, index, source.slice(offset + (int) (index - first) * TAG_LENGTH, chunk + TAG_LENGTH), target.slice(offset, chunk));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to map region", e);
+                }
+            });
+            return length;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decrypt file", e);
+        }
+    }
+
+    // Decrypt a single chunk of a file
+    public byte[] decryptChunk(Path input, long index) {
+        try (var in = FileChannel.open(input, READ)) {
+            var headerBuffer = ByteBuffer.allocate(HEADER_LENGTH);
+            while (headerBuffer.hasRemaining()) if (in.read(headerBuffer, headerBuffer.position()) < 0) throw new IOException("Input too short");
+            var header = readHeader(headerBuffer.flip());
+            var length = plaintextLength(header, in.size());
+            if (index < 0 || index >= chunkCount(length)) throw new IndexOutOfBoundsException("Chunk " + index + " out of range");
+
+            // Read only the requested chunk
+            var chunk = chunkLength(length, index);
+            var source = ByteBuffer.allocate(chunk + TAG_LENGTH);
+            var position = HEADER_LENGTH + index * (chunkSize + TAG_LENGTH);
+            while (source.hasRemaining()) if (in.read(source, position + source.position()) < 0) throw new IOException("Input too short");
+            var output = new byte[chunk];
+            open(header, index, source.flip(), ByteBuffer.wrap(output));
+            return output;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decrypt chunk", e);
+        }
+    }
+
+    // Run tasks for all indices on the pool
+    private void run(long count, ChunkTask task) {
+        pool.submit(() -> LongStream.range(0, count).parallel().forEach(task::run)).join();
+    }
+
+    // Plaintext length of a chunk
+    private int chunkLength(long plaintextLength, long index) {
+        return (int) Math.min(chunkSize, plaintextLength - index * chunkSize);
+    }
+
+    // Decrypt chunk of a byte[] ciphertext
+    private void openChunk(byte[] header, long index, byte[] data, byte[] output, int outputOffset) {
+        var chunk = chunkLength(plaintextLength(header), index);
+        var position = (int) (HEADER_LENGTH + index * (chunkSize + TAG_LENGTH));
+        open(header, index, ByteBuffer.wrap(data, position, chunk + TAG_LENGTH), ByteBuffer.wrap(output, outputOffset, chunk));
+    }
+
+    // Seal one chunk
+    private void seal(byte[] header, long index, ByteBuffer source, ByteBuffer target) {
+        process(ENCRYPT_MODE, header, index, source, target);
+    }
+
+    // Open one chunk, fails on any modification
+    private void open(byte[] header, long index, ByteBuffer source, ByteBuffer target) {
+        process(DECRYPT_MODE, header, index, source, target);
+    }
+
+    private void process(int opmode, byte[] header, long index, ByteBuffer source, ByteBuffer target) {
+        var cipher = ciphers.borrow();
+        try {
+            cipher.init(opmode, key, new GCMParameterSpec(TAG_LENGTH * 8, chunkNonce(header, index)));
+            cipher.updateAAD(header);
+            cipher.doFinal(source, target);
+        } catch (AEADBadTagException e) {
+            throw new RuntimeException("Chunk " + index + " failed authentication", e);
+        } catch (InvalidKeyException | InvalidAlgorithmParameterException | ShortBufferException | IllegalBlockSizeException | BadPaddingException e) {
+            throw new RuntimeException("Failed to process chunk " + index, e);
+        } finally {
+            ciphers.release(cipher);
+        }
+    }
+
+    // Write the header with a fresh base nonce
+    private byte[] writeHeader(byte[] output, long plaintextLength) {
+        var buffer = ByteBuffer.wrap(output, 0, HEADER_LENGTH);
+        buffer.put(VERSION).putInt(chunkSize).putLong(plaintextLength);
+        var nonce = new byte[NONCE_LENGTH];
+        IVGenerator.random().nextBytes(nonce);
+        buffer.put(nonce);
+        var header = new byte[HEADER_LENGTH];
+        System.arraycopy(output, 0, header, 0, HEADER_LENGTH);
+        return header;
+    }
+
+    // Read and validate the header
+    private byte[] readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_LENGTH) throw new IllegalArgumentException("Input too short");
+        var header = new byte[HEADER_LENGTH];
+        buffer.get(header);
+        if (header[0] != VERSION) throw new IllegalArgumentException("Unsupported chunked format version " + header[0]);
+        if (ByteBuffer.wrap(header, 1, 4).getInt() != chunkSize) throw new IllegalArgumentException("Chunk size does not match");
+        return header;
+    }
+
+    // Plaintext length stored in the header
+    private static long plaintextLength(byte[] header) {
+        return ByteBuffer.wrap(header, 5, 8).getLong();
+    }
+
+    // Plaintext length checked against the size of the whole ciphertext, before anything is allocated or sliced
+    private long plaintextLength(byte[] header, long encryptedSize) {
+        var length = plaintextLength(header);
+        if (length < 0 || length > encryptedSize || encryptedSize(length) != encryptedSize) throw new IllegalArgumentException("Invalid chunked ciphertext length");
+        return length;
+    }
+
+    // Base nonce XOR chunk index in the last 8 bytes
+    private static byte[] chunkNonce(byte[] header, long index) {
+        var nonce = new byte[NONCE_LENGTH];
+        System.arraycopy(header, HEADER_LENGTH - NONCE_LENGTH, nonce, 0, NONCE_LENGTH);
+        for (var i = 0; i < 8; i++) nonce[NONCE_LENGTH - 1 - i] ^= (byte) (index >>> (i * 8));
+        return nonce;
+    }
+
+    // Getters
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    // Task per chunk or region index
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(long index);
+    }
+}
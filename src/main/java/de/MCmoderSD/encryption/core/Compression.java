@@ -0,0 +1,248 @@
+package de.MCmoderSD.encryption.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// Deflate stage applied to plaintext before encryption, the first byte flags how the rest is stored
+@SuppressWarnings("unused")
+public class Compression {
+
+    // Flags
+    public static final byte RAW = 0;                   // Flag | data
+    public static final byte DEFLATE = 1;               // Flag | original length (4) | raw deflate data
+    public static final byte DEFLATE_STREAM = 2;        // Flag | raw deflate stream of unknown length
+
+    // Defaults
+    public static final int DEFAULT_LEVEL = Deflater.BEST_SPEED;
+    public static final int DEFAULT_THRESHOLD = 512;    // Smaller inputs rarely shrink enough to pay for the CPU
+
+    // Attributes
+    private final int level;
+    private final int threshold;
+    private final Pool<Deflater> deflaters;
+    private final Pool<Inflater> inflaters;
+
+    // Constructor
+    public Compression() {
+        this(DEFAULT_LEVEL, DEFAULT_THRESHOLD);
+    }
+
+    // Full Constructor
+    public Compression(int level, int threshold) {
+
+        // Check Parameters
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) throw new IllegalArgumentException("Invalid compression level " + level);
+        if (threshold < 0) throw new IllegalArgumentException("Threshold must not be negative");
+
+        // Set Attributes
+        this.level = level;
+        this.threshold = threshold;
+
+        // Raw deflate without zlib header and checksum, the cipher already protects integrity
+        deflaters = new Pool<>(() -> new Deflater(level, true));
+        inflaters = new Pool<>(() -> new Inflater(true));
+    }
+
+    // Compress into a flagged array
+    public byte[] compress(byte[] data) {
+        return compress(data, 0, data.length);
+    }
+
+    // Compress a range, falls back to RAW below the threshold or if deflate does not shrink the data
+    public byte[] compress(byte[] data, int offset, int length) {
+        if (length >= threshold && length > 5) {
+            var output = new byte[length];
+            var deflater = deflaters.borrow();
+            try {
+                deflater.setInput(data, offset, length);
+                deflater.finish();
+                var written = 5;
+                while (!deflater.finished() && written < output.length) written += deflater.deflate(output, written, output.length - written);
+                if (deflater.finished()) {
+                    output[0] = DEFLATE;
+                    output[1] = (byte) (length >>> 24);
+                    output[2] = (byte) (length >>> 16);
+                    output[3] = (byte) (length >>> 8);
+                    output[4] = (byte) length;
+                    return Arrays.copyOf(output, written);
+                }
+            } finally {
+                deflater.reset();
+                deflaters.release(deflater);
+            }
+        }
+
+        // Store
+        var output = new byte[length + 1];
+        output[0] = RAW;
+        System.arraycopy(data, offset, output, 1, length);
+        return output;
+    }
+
+    // Restore a flagged array
+    public byte[] decompress(byte[] data) {
+        return decompress(data, 0, data.length);
+    }
+
+    public byte[] decompress(byte[] data, int offset, int length) {
+        if (length < 1) throw new IllegalArgumentException("Missing compression flag");
+        return switch (data[offset]) {
+            case RAW -> Arrays.copyOfRange(data, offset + 1, offset + length);
+            case DEFLATE -> inflate(data, offset, length);
+            case DEFLATE_STREAM -> {
+                try (var stream = decompressingInputStream(new ByteArrayInputStream(data, offset, length))) {
+                    yield stream.readAllBytes();
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to decompress data", e);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown compression flag " + data[offset]);
+        };
+    }
+
+    // Inflate into an array of the recorded length
+    private byte[] inflate(byte[] data, int offset, int length) {
+        if (length < 5) throw new IllegalArgumentException("Truncated compression header");
+        var originalLength = (data[offset + 1] & 0xFF) << 24 | (data[offset + 2] & 0xFF) << 16 | (data[offset + 3] & 0xFF) << 8 | (data[offset + 4] & 0xFF);
+        if (originalLength < 0) throw new IllegalArgumentException("Invalid original length");
+        var output = new byte[originalLength];
+        var inflater = inflaters.borrow();
+        try {
+            inflater.setInput(data, offset + 5, length - 5);
+            var written = 0;
+            while (written < originalLength) {
+                var count = inflater.inflate(output, written, originalLength - written);
+                if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) break;
+                written += count;
+            }
+            if (written != originalLength) throw new IllegalArgumentException("Compressed data is truncated");
+            return output;
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Failed to decompress data", e);
+        } finally {
+            inflater.reset();
+            inflaters.release(inflater);
+        }
+    }
+
+    // Compress everything written, streams shorter than the threshold are stored RAW like arrays, closing releases the pooled Deflater
+    public OutputStream compressingOutputStream(OutputStream outputStream) {
+        return new CompressingOutputStream(outputStream);
+    }
+
+    // Read the flag and decompress if needed, also reads arrays written by compress(), closing releases the pooled Inflater
+    public InputStream decompressingInputStream(InputStream inputStream) {
+        try {
+            var flag = inputStream.read();
+            if (flag == RAW) return inputStream;
+            if (flag == DEFLATE && inputStream.readNBytes(4).length != 4) throw new IOException("Truncated compression header");
+            else if (flag != DEFLATE && flag != DEFLATE_STREAM) throw new IOException("Unsupported stream compression flag " + flag);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read compression flag", e);
+        }
+        var inflater = inflaters.borrow();
+        return new InflaterInputStream(inputStream, inflater, 8192) {
+
+            // Attributes
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) return;
+                closed = true;
+                try {
+                    super.close();
+                } finally {
+                    inflater.reset();
+                    inflaters.release(inflater);
+                }
+            }
+        };
+    }
+
+    // Holds back the first bytes until the threshold decides between RAW and DEFLATE_STREAM
+    private final class CompressingOutputStream extends OutputStream {
+
+        // Attributes
+        private final OutputStream out;
+        private byte[] pending;
+        private int count;
+        private Deflater deflater;
+        private DeflaterOutputStream deflating;
+        private boolean closed;
+
+        // Constructor
+        private CompressingOutputStream(OutputStream outputStream) {
+            out = outputStream;
+            pending = new byte[Math.min(threshold, 1024)];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) throw new IOException("Stream closed");
+            if (deflating == null && count + len < threshold) {
+                if (count + len > pending.length) pending = Arrays.copyOf(pending, Math.min(threshold, Math.max(count + len, pending.length * 2)));
+                System.arraycopy(b, off, pending, count, len);
+                count += len;
+                return;
+            }
+            if (deflating == null) start();
+            deflating.write(b, off, len);
+        }
+
+        // Threshold reached, write the flag and deflate everything held back so far
+        private void start() throws IOException {
+            out.write(DEFLATE_STREAM);
+            deflater = deflaters.borrow();
+            deflating = new DeflaterOutputStream(out, deflater, 8192);
+            deflating.write(pending, 0, count);
+            pending = null;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (deflating != null) deflating.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                if (deflating != null) deflating.close();
+                else {
+                    out.write(RAW);
+                    out.write(pending, 0, count);
+                    out.close();
+                }
+            } finally {
+                if (deflater != null) {
+                    deflater.reset();
+                    deflaters.release(deflater);
+                }
+            }
+        }
+    }
+
+    // Getters
+    public int getLevel() {
+        return level;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+}
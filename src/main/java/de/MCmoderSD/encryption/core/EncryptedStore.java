@@ -0,0 +1,425 @@
+package de.MCmoderSD.encryption.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+
+// Append only log of encrypted records in a memory mapped file with an in memory index, values are decrypted on read only
+// Format: magic (4) | version (1) | record 0 | record 1 | ...
+// Record: length (4) | type (1) | encrypted key length (4) | encrypted key | encrypted value, length counts everything after itself
+@SuppressWarnings("unused")
+public class EncryptedStore implements AutoCloseable {
+
+    // Constants
+    public static final int MAGIC = 0x454E4353;                 // "ENCS"
+    public static final byte VERSION = 1;
+    public static final int HEADER_LENGTH = 5;
+    public static final int RECORD_HEADER_LENGTH = 4 + 1 + 4;
+    public static final long MAX_SIZE = Integer.MAX_VALUE;      // Single mapping
+    public static final long INITIAL_CAPACITY = 1024 * 1024;    // 1 MiB
+    public static final double DEFAULT_COMPACTION_RATIO = 0.5;  // Compact once half of the file is superseded
+    public static final long MIN_COMPACTION_SIZE = 1024 * 1024; // Smaller files are not compacted automatically
+
+    // Record types
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    // Attributes
+    private final Path path;
+    private final Encryption encryption;
+    private final double compactionRatio;
+    private final ConcurrentHashMap<Key, Location> index;
+    private final ReentrantLock writeLock;
+    private final AtomicBoolean compacting;
+
+    // File state, replaced on growth and compaction, guarded by writeLock
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private int position;
+    private long garbage;
+    private volatile boolean closed;
+
+    // Constructor
+    public EncryptedStore(Path path, Encryption encryption) {
+        this(path, encryption, DEFAULT_COMPACTION_RATIO);
+    }
+
+    // Full Constructor, a compactionRatio of 0 disables automatic compaction
+    public EncryptedStore(Path path, Encryption encryption, double compactionRatio) {
+
+        // Check Parameters
+        if (compactionRatio < 0 || compactionRatio >= 1) throw new IllegalArgumentException("Compaction ratio must be between 0 and 1");
+
+        // Set Attributes
+        this.path = path;
+        this.encryption = encryption;
+        this.compactionRatio = compactionRatio;
+        index = new ConcurrentHashMap<>();
+        writeLock = new ReentrantLock();
+        compacting = new AtomicBoolean();
+
+        // Open and index the log
+        try {
+            channel = FileChannel.open(path, CREATE, READ, WRITE);
+            var size = channel.size();
+            if (size > MAX_SIZE) throw new IOException("Store exceeds " + MAX_SIZE + " bytes");
+            buffer = channel.map(READ_WRITE, 0, Math.max(INITIAL_CAPACITY, size));
+            if (size == 0) {
+                buffer.putInt(0, MAGIC).put(4, VERSION);
+                position = HEADER_LENGTH;
+            } else load((int) size);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new RuntimeException("Failed to open store", e);
+        } catch (RuntimeException e) {
+            closeQuietly();     // For example a key that does not match the store
+            throw e;
+        }
+    }
+
+    // Rebuild the index, only keys are decrypted, a torn record at the end is cut off
+    private void load(int limit) throws IOException {
+        if (buffer.getInt(0) != MAGIC) throw new IOException("Not an encrypted store");
+        if (buffer.get(4) != VERSION) throw new IOException("Unsupported store version " + buffer.get(4));
+        var offset = HEADER_LENGTH;
+        while (offset + RECORD_HEADER_LENGTH <= limit) {
+            var length = buffer.getInt(offset);
+            var type = buffer.get(offset + 4);
+            var keyLength = buffer.getInt(offset + 5);
+            if (length < 5 || offset + 4L + length > limit || keyLength < 0 || keyLength > length - 5 || (type != PUT && type != DELETE)) break;
+
+            // Decrypt key
+            var encryptedKey = new byte[keyLength];
+            buffer.get(offset + RECORD_HEADER_LENGTH, encryptedKey);
+            var key = new Key(encryption.decrypt(encryptedKey));
+
+            // Apply record
+            var size = 4 + length;
+            var previous = type == PUT ? index.put(key, new Location(buffer, offset, size, offset + RECORD_HEADER_LENGTH + keyLength, length - 5 - keyLength)) : index.remove(key);
+            if (previous != null) garbage += previous.size;
+            if (type == DELETE) garbage += size;
+            offset += size;
+        }
+        position = offset;
+    }
+
+    // Store a value, replaces the previous one
+    public void put(String key, byte[] value) {
+        put(key.getBytes(StandardCharsets.UTF_8), value);
+    }
+
+    public void put(byte[] key, byte[] value) {
+        append(PUT, key, encryption.encrypt(value));
+    }
+
+    // Remove a value, returns whether it existed
+    public boolean remove(String key) {
+        return remove(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Missing keys skip encryption here, append checks again under the lock before writing the record
+    public boolean remove(byte[] key) {
+        if (!index.containsKey(new Key(key))) return false;
+        return append(DELETE, key, null);
+    }
+
+    // Read and decrypt one value, other records are not touched
+    public byte[] get(String key) {
+        return get(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public byte[] get(byte[] key) {
+        ensureOpen();
+        var location = index.get(new Key(key));
+        if (location == null) return null;
+        var encryptedValue = new byte[location.valueLength];
+        location.buffer.get(location.valueOffset, encryptedValue);
+        return encryption.decrypt(encryptedValue);
+    }
+
+    public boolean contains(String key) {
+        return contains(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean contains(byte[] key) {
+        return index.containsKey(new Key(key));
+    }
+
+    // Append a record, encryption happens before the lock is taken
+    private boolean append(byte type, byte[] key, byte[] encryptedValue) {
+        var encryptedKey = encryption.encrypt(key);
+        var valueLength = encryptedValue == null ? 0 : encryptedValue.length;
+        var size = RECORD_HEADER_LENGTH + encryptedKey.length + valueLength;
+        var lookup = new Key(key.clone());
+        boolean compact;
+
+        writeLock.lock();
+        try {
+            ensureOpen();
+            if (type == DELETE && !index.containsKey(lookup)) return false;
+            ensureCapacity(size);
+
+            // Write record
+            var offset = position;
+            buffer.putInt(offset, size - 4).put(offset + 4, type).putInt(offset + 5, encryptedKey.length);
+            buffer.put(offset + RECORD_HEADER_LENGTH, encryptedKey);
+            if (encryptedValue != null) buffer.put(offset + RECORD_HEADER_LENGTH + encryptedKey.length, encryptedValue);
+            position += size;
+
+            // Publish to readers
+            var previous = type == PUT ? index.put(lookup, new Location(buffer, offset, size, offset + RECORD_HEADER_LENGTH + encryptedKey.length, valueLength)) : index.remove(lookup);
+            if (previous != null) garbage += previous.size;
+            if (type == DELETE) garbage += size;
+            compact = shouldCompact();
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (compact) compactAsync();
+        return true;
+    }
+
+    // Grow the mapping, old mappings stay valid for readers holding their locations
+    private void ensureCapacity(int size) {
+        var required = (long) position + size;
+        if (required <= buffer.capacity()) return;
+        if (required > MAX_SIZE) throw new IllegalStateException("Store exceeds " + MAX_SIZE + " bytes");
+        try {
+            buffer = channel.map(READ_WRITE, 0, Math.min(MAX_SIZE, Math.max(required, (long) buffer.capacity() * 2)));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to grow store", e);
+        }
+    }
+
+    private boolean shouldCompact() {
+        return compactionRatio > 0 && position >= MIN_COMPACTION_SIZE && garbage > position * compactionRatio && !compacting.get();
+    }
+
+    // Compact on a virtual thread, at most one compaction runs at a time
+    public CompletableFuture<Void> compactAsync() {
+        var result = new CompletableFuture<Void>();
+        if (!compacting.compareAndSet(false, true)) return CompletableFuture.completedFuture(null);
+        Thread.ofVirtual().name("store-compaction").start(() -> {
+            try {
+                compactNow();
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                compacting.set(false);
+            }
+        });
+        return result;
+    }
+
+    // Compact on the calling thread
+    public void compact() {
+        if (!compacting.compareAndSet(false, true)) throw new IllegalStateException("Compaction already running");
+        try {
+            compactNow();
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    // Copy live records into a new file without re-encrypting them and swap it in, writers wait, readers do not
+    private void compactNow() {
+        writeLock.lock();
+        try {
+            ensureOpen();
+            var temp = path.resolveSibling(path.getFileName() + ".compact");
+            var live = new ArrayList<>(index.entrySet());
+            live.sort((a, b) -> Integer.compare(a.getValue().offset, b.getValue().offset));
+            var size = HEADER_LENGTH;
+            for (var entry : live) size += entry.getValue().size;
+
+            // Write live records
+            var newChannel = FileChannel.open(temp, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+            MappedByteBuffer newBuffer;
+            var updated = new ArrayList<Location>(live.size());
+            try {
+                newBuffer = newChannel.map(READ_WRITE, 0, Math.max(INITIAL_CAPACITY, size));
+                newBuffer.putInt(0, MAGIC).put(4, VERSION);
+                var offset = HEADER_LENGTH;
+                var record = new byte[0];
+                for (var entry : live) {
+                    var location = entry.getValue();
+                    if (record.length < location.size) record = new byte[location.size];
+                    location.buffer.get(location.offset, record, 0, location.size);
+                    newBuffer.put(offset, record, 0, location.size);
+                    updated.add(new Location(newBuffer, offset, location.size, offset + location.valueOffset - location.offset, location.valueLength));
+                    offset += location.size;
+                }
+                newBuffer.force();
+            } catch (IOException | RuntimeException e) {
+                newChannel.close();
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+
+            // Swap files and publish the new locations
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(path.toAbsolutePath().getParent());
+            var oldChannel = channel;
+            channel = newChannel;
+            buffer = newBuffer;
+            position = size;
+            garbage = 0;
+            for (var i = 0; i < live.size(); i++) index.put(live.get(i).getKey(), updated.get(i));
+            oldChannel.close();
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compact store", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Persist a rename, directories cannot be opened on Windows where NTFS journals it instead
+    private static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    // Write mapped changes to disk
+    public void flush() {
+        writeLock.lock();
+        try {
+            ensureOpen();
+            buffer.force();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Flush and cut the file to its logical size
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            buffer.force();
+            channel.truncate(position);
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close store", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Store is closed");
+    }
+
+    // Getters
+    public Path getPath() {
+        return path;
+    }
+
+    public Encryption getEncryption() {
+        return encryption;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public List<byte[]> keys() {
+        var keys = new ArrayList<byte[]>(index.size());
+        for (var key : index.keySet()) keys.add(key.data.clone());
+        return keys;
+    }
+
+    public long getFileSize() {
+        writeLock.lock();
+        try {
+            return position;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long getGarbage() {
+        writeLock.lock();
+        try {
+            return garbage;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Position of a record in a mapping, compared by identity
+    private static final class Location {
+
+        // Attributes
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int size;
+        private final int valueOffset;
+        private final int valueLength;
+
+        // Constructor
+        private Location(ByteBuffer buffer, int offset, int size, int valueOffset, int valueLength) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.size = size;
+            this.valueOffset = valueOffset;
+            this.valueLength = valueLength;
+        }
+    }
+
+    // Content based key, hash is computed once
+    private static final class Key {
+
+        // Attributes
+        private final byte[] data;
+        private final int hash;
+
+        // Constructor
+        private Key(byte[] data) {
+            this.data = data;
+            hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return this == object || (object instanceof Key other && hash == other.hash && Arrays.equals(data, other.data));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
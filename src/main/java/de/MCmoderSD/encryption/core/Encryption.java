@@ -1,43 +1,123 @@
 package de.MCmoderSD.encryption.core;
 
 import de.MCmoderSD.encryption.enums.*;
+import de.MCmoderSD.encryption.metrics.EncryptionMetrics;
+import de.MCmoderSD.encryption.serializer.BinarySerializer;
+import de.MCmoderSD.encryption.serializer.Serializer;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
 import javax.crypto.spec.SecretKeySpec;
 import javax.crypto.BadPaddingException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
-import java.security.MessageDigest;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Base64;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
+import static de.MCmoderSD.encryption.enums.Operation.DECRYPT;
+import static de.MCmoderSD.encryption.enums.Operation.ENCRYPT;
 import static javax.crypto.Cipher.DECRYPT_MODE;
 import static javax.crypto.Cipher.ENCRYPT_MODE;
 
 @SuppressWarnings("unused")
 public class Encryption {
 
+    // Streaming
+    public static final int STREAM_BUFFER_SIZE = 1024 * 1024;  // 1 MiB per direct buffer
+    private static final Pool<ByteBuffer> STREAM_BUFFERS = new Pool<>(() -> ByteBuffer.allocateDirect(STREAM_BUFFER_SIZE + 64));
+
+    // Chunk size when a MAC is computed alongside encryption, small enough that each chunk is still in L1/L2 when MACed
+    private static final int MAC_CHUNK_SIZE = 16 * 1024;
+
+    // Serialization
+    private static final Pool<Buffer> BUFFERS = new Pool<>(Buffer::new);
+
+    // Identifiers
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final byte[] IDENTIFIER_LABEL = "de.MCmoderSD.encryption.Identifier".getBytes(StandardCharsets.UTF_8);
+
+    // Batching
+    public static final int PARALLEL_BATCH_THRESHOLD = 1024;   // Smaller batches run on the calling thread
+
+    // Asynchronous
+    public static final int DEFAULT_MAX_IN_FLIGHT = Runtime.getRuntime().availableProcessors() * 16;
+    private static final ExecutorService ASYNC_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
     // Attributes
     private final Charset charset;
     private final Hash hash;
+    private final KeyDerivation keyDerivation;
     private final Transformer transformer;
     private final Algorithm algorithm;
     private final Mode mode;
     private final Padding padding;
     private final SecretKeySpec key;
+    private final int ivLength;
+    private final IVGenerator ivGenerator;
+
+    // Caches                                   // Key: Input, Value: Output
+    private final Cache encryptCache;           // Decrypted to Encrypted
+    private final Cache decryptCache;           // Encrypted to Decrypted
+
+    // Initialized Ciphers
+    private final Pool<Cipher> encryptCiphers;
+    private final Pool<Cipher> decryptCiphers;
+    private final Pool<Cipher> identifierEncryptCiphers;
+    private final Pool<Cipher> identifierDecryptCiphers;
+    private final Pool<CharsetEncoder> charEncoders;
+
+    // Instrumentation
+    private final EncryptionMetrics metrics;
+
+    // Optional compression of message plaintexts, null = disabled
+    private final Compression compression;
 
-    // Caches                                                       // Key: Input, Value: Output
-    private final ConcurrentHashMap<byte[], byte[]> encryptCache;   // Decrypted to Encrypted
-    private final ConcurrentHashMap<byte[], byte[]> decryptCache;   // Encrypted to Decrypted
+    // Bounds asynchronous work, callers wait for a permit instead of queueing without limit
+    private final Semaphore inFlight;
 
     // Constructor
     public Encryption(String password, Hash hash, Transformer transformer) {
@@ -46,45 +126,213 @@ public class Encryption {
 
     // Full Constructor
     public Encryption(String password, Charset charset, Hash hash, Transformer transformer) {
+        this(password, charset, hash, transformer, Cache.DEFAULT_MAX_ENTRIES, Cache.DEFAULT_MAX_BYTES, null);
+    }
+
+    // Cache Constructor, maxEntries or maxBytes of 0 disables caching, ttl may be null
+    public Encryption(String password, Charset charset, Hash hash, Transformer transformer, long maxEntries, long maxBytes, Duration ttl) {
+        this(password, charset, hash, transformer, maxEntries, maxBytes, ttl, null, null);
+    }
+
+    // Options Constructor, compression and metrics may be null
+    // Compression applies to the byte[], batch, String, Object and stream APIs here and in AuthenticatedEncryption and Keyring,
+    // range, ByteBuffer, FileChannel and identifier methods stay uncompressed as do ChunkedEncryption and EnvelopeEncryption data
+    // Arrays and streams below the threshold are stored RAW, either form decrypts through the other API
+    // Both sides must use the same compression setting
+    public Encryption(String password, Charset charset, Hash hash, Transformer transformer, Compression compression) {
+        this(password, charset, hash, transformer, Cache.DEFAULT_MAX_ENTRIES, Cache.DEFAULT_MAX_BYTES, null, compression, null);
+    }
+
+    public Encryption(String password, Charset charset, Hash hash, Transformer transformer, long maxEntries, long maxBytes, Duration ttl, Compression compression, EncryptionMetrics metrics) {
+        this(generateKey(password, charset, hash, transformer.getAlgorithm()), charset, hash, null, transformer, maxEntries, maxBytes, ttl, compression, metrics);
+    }
+
+    // KDF Constructor, derived keys are cached process wide so repeated construction is cheap
+    public Encryption(String password, Charset charset, KeyDerivation keyDerivation, Transformer transformer) {
+        this(password, charset, keyDerivation, transformer, Cache.DEFAULT_MAX_ENTRIES, Cache.DEFAULT_MAX_BYTES, null);
+    }
+
+    public Encryption(String password, Charset charset, KeyDerivation keyDerivation, Transformer transformer, long maxEntries, long maxBytes, Duration ttl) {
+        this(password, charset, keyDerivation, transformer, maxEntries, maxBytes, ttl, null, null);
+    }
+
+    public Encryption(String password, Charset charset, KeyDerivation keyDerivation, Transformer transformer, Compression compression) {
+        this(password, charset, keyDerivation, transformer, Cache.DEFAULT_MAX_ENTRIES, Cache.DEFAULT_MAX_BYTES, null, compression, null);
+    }
+
+    public Encryption(String password, Charset charset, KeyDerivation keyDerivation, Transformer transformer, long maxEntries, long maxBytes, Duration ttl, Compression compression, EncryptionMetrics metrics) {
+        this(keyDerivation.deriveKey(password, charset, transformer.getAlgorithm()), charset, keyDerivation.getKDF().getHash(), keyDerivation, transformer, maxEntries, maxBytes, ttl, compression, metrics);
+    }
+
+    // Key Constructor
+    private Encryption(SecretKeySpec key, Charset charset, Hash hash, KeyDerivation keyDerivation, Transformer transformer, long maxEntries, long maxBytes, Duration ttl, Compression compression, EncryptionMetrics metrics) {
+
+        // Check Parameters, the compressed length would decide whether a call fails
+        if (compression != null && transformer.requiresAlignedInput()) throw new IllegalArgumentException(transformer + " requires block aligned input and cannot be combined with compression");
 
         // Set Attributes
         this.charset = charset;
         this.hash = hash;
+        this.keyDerivation = keyDerivation;
         this.transformer = transformer;
         algorithm = transformer.getAlgorithm();
         mode = transformer.getMode();
         padding = transformer.getPadding();
+        this.key = key;
+        this.compression = compression;
 
-        // Generate SecretKeySpec
-        key = generateKey(password, charset, hash, algorithm);
+        // Initialize IV Generator
+        ivLength = transformer.getIVLength();
+        ivGenerator = new IVGenerator(transformer);
 
         // Initialize Caches
-        encryptCache = new ConcurrentHashMap<>();
-        decryptCache = new ConcurrentHashMap<>();
+        encryptCache = new Cache(maxEntries, maxBytes, ttl);
+        decryptCache = new Cache(maxEntries, maxBytes, ttl);
+
+        // Initialize Cipher Pools
+        encryptCiphers = new Pool<>(() -> createCipher(ENCRYPT_MODE));
+        decryptCiphers = new Pool<>(() -> createCipher(DECRYPT_MODE));
+        identifierEncryptCiphers = new Pool<>(() -> createIdentifierCipher(ENCRYPT_MODE));
+        identifierDecryptCiphers = new Pool<>(() -> createIdentifierCipher(DECRYPT_MODE));
+        charEncoders = new Pool<>(() -> newEncoder(charset));
+
+        // Initialize Metrics
+        this.metrics = metrics == null ? EncryptionMetrics.NOOP : metrics;
+        if (metrics != null) {
+            LongConsumer listener = count -> metrics.onCacheEviction(transformer, count);
+            encryptCache.setEvictionListener(listener);
+            decryptCache.setEvictionListener(listener);
+        }
+        inFlight = new Semaphore(DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    // Shared instance from the default registry, built once per configuration
+    public static Encryption of(String password, Hash hash, Transformer transformer) {
+        return of(password, Charset.defaultCharset(), hash, transformer);
+    }
+
+    public static Encryption of(String password, Charset charset, Hash hash, Transformer transformer) {
+        return EncryptionRegistry.getDefault().get(password, charset, hash, transformer);
+    }
+
+    public static Encryption of(String password, Charset charset, KeyDerivation keyDerivation, Transformer transformer) {
+        return EncryptionRegistry.getDefault().get(password, charset, keyDerivation, transformer);
+    }
+
+    public static Encryption of(String password, Charset charset, Hash hash, Transformer transformer, Compression compression) {
+        return EncryptionRegistry.getDefault().get(password, charset, hash, transformer, compression);
+    }
+
+    public static Encryption of(String password, Charset charset, KeyDerivation keyDerivation, Transformer transformer, Compression compression) {
+        return EncryptionRegistry.getDefault().get(password, charset, keyDerivation, transformer, compression);
     }
 
     // Generate SecretKeySpec from password
     private static SecretKeySpec generateKey(String password, Charset charset, Hash hash, Algorithm algorithm) {
+        var passwordHash = Hasher.of(hash).digest(password.getBytes(charset));
+        var keyBytes = new byte[algorithm.getKeySizes().getLast()];
+        System.arraycopy(passwordHash, 0, keyBytes, 0, Math.min(passwordHash.length, keyBytes.length));
+        return new SecretKeySpec(keyBytes, algorithm.name());
+    }
+
+    // Create a Cipher, modes without IV are initialized once so the key schedule is computed once
+    private Cipher createCipher(int opmode) {
+        try {
+            var start = startTime();
+            var cipher = Cipher.getInstance(transformer.getTransformation());
+            if (!mode.needsIV()) cipher.init(opmode, key);
+            if (start != 0) metrics.onCipherCreated(transformer, System.nanoTime() - start);
+            return cipher;
+        } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Failed to create cipher", e);
+        }
+    }
+
+    // Create a single block ECB cipher under a subkey, tokens never share a key with IV based payloads
+    private Cipher createIdentifierCipher(int opmode) {
         try {
-            var messageDigest = MessageDigest.getInstance(hash.getName());
-            var passwordHash = messageDigest.digest(password.getBytes(charset));
-            var keyBytes = new byte[algorithm.getKeySizes().getLast()];
-            System.arraycopy(passwordHash, 0, keyBytes, 0, Math.min(passwordHash.length, keyBytes.length));
-            return new SecretKeySpec(keyBytes, algorithm.name());
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key.getEncoded(), "HmacSHA256"));
+            var subkey = Arrays.copyOf(mac.doFinal(IDENTIFIER_LABEL), key.getEncoded().length);
+            var cipher = Cipher.getInstance(algorithm.name() + "/ECB/NoPadding");
+            cipher.init(opmode, new SecretKeySpec(subkey, algorithm.name()));
+            return cipher;
+        } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Failed to create cipher", e);
         }
     }
 
-    // Encrypt byte[]
+    // Start timestamp for metrics, the clock is not read while no listener is set
+    private long startTime() {
+        return metrics == EncryptionMetrics.NOOP ? 0 : System.nanoTime();
+    }
+
+    // Report a completed operation started at start
+    private void record(Operation operation, long bytes, long start) {
+        if (start != 0) metrics.onOperation(transformer, operation, bytes, System.nanoTime() - start);
+    }
+
+    // Report a failed operation
+    private RuntimeException failed(Operation operation, String message, Exception e) {
+        metrics.onError(transformer, operation, e);
+        return new RuntimeException(message, e);
+    }
+
+    // Report a cache lookup, returns the cached value
+    private byte[] lookup(Cache cache, Operation operation, byte[] input) {
+        var cached = cache.get(input);
+        if (cached != null) metrics.onCacheHit(transformer, operation);
+        else metrics.onCacheMiss(transformer, operation);
+        return cached;
+    }
+
+    // Create parameters for IV based modes
+    private AlgorithmParameterSpec parameterSpec(byte[] iv, int offset) {
+        if (mode == Mode.GCM) return new GCMParameterSpec(transformer.getTagLength() * 8, iv, offset, ivLength);
+        return new IvParameterSpec(iv, offset, ivLength);
+    }
+
+    // Initialize for encryption, returns the fresh IV or null if the mode needs none
+    private byte[] initEncrypt(Cipher cipher) throws InvalidKeyException, InvalidAlgorithmParameterException {
+        if (!mode.needsIV()) return null;
+        var iv = ivGenerator.next();
+        cipher.init(ENCRYPT_MODE, key, parameterSpec(iv, 0));
+        return iv;
+    }
+
+    // Initialize for decryption with the IV read from the header
+    private void initDecrypt(Cipher cipher, byte[] iv, int offset) throws InvalidKeyException, InvalidAlgorithmParameterException {
+        if (mode.needsIV()) cipher.init(DECRYPT_MODE, key, parameterSpec(iv, offset));
+    }
+
+    // Block modes without padding only accept whole blocks, fail with the block size instead of a generic cipher error
+    private void checkAligned(long length) {
+        if (transformer.requiresAlignedInput() && length % algorithm.getBlockSize() != 0) throw new IllegalArgumentException(transformer + " requires input in multiples of the " + algorithm.getBlockSize() + " byte block size, got " + length + " bytes");
+    }
+
+    // Encrypted size of input length bytes, including IV and tag
+    public int outputSize(int inputLength) {
+        var blockSize = algorithm.getBlockSize();
+        var bodyLength = padding == Padding.PKCS5Padding ? (inputLength / blockSize + 1) * blockSize : inputLength;
+        return ivLength + bodyLength + transformer.getTagLength();
+    }
+
+    // Upper bound of the decrypted size of input length bytes
+    public int decryptOutputSize(int inputLength) {
+        return Math.max(0, inputLength - ivLength - transformer.getTagLength());
+    }
+
+    // Encrypt byte[], IV based modes produce IV | ciphertext (| tag)
     public byte[] encrypt(byte[] decryptedData) {
-        if (!mode.needsIV() && encryptCache.containsKey(decryptedData)) return encryptCache.get(decryptedData);
+        if (isCacheable()) {
+            var cached = lookup(encryptCache, ENCRYPT, decryptedData);
+            if (cached != null) return cached;
+        }
+        var cipher = encryptCiphers.borrow();
         try {
 
-            // Encrypt
-            var cipher = Cipher.getInstance(transformer.getTransformation());
-            cipher.init(ENCRYPT_MODE, key);
-            var encryptedData = cipher.doFinal(decryptedData);
+            // Encrypt, doFinal resets the cipher so it can be reused
+            var encryptedData = encryptWith(cipher, decryptedData);
 
             // Cache if no IV is needed
             if (!mode.needsIV()) {
@@ -95,21 +343,130 @@ public class Encryption {
             // Return encrypted data
             return encryptedData;
 
-        } catch (NoSuchPaddingException | IllegalBlockSizeException | NoSuchAlgorithmException | BadPaddingException |
-                 InvalidKeyException e) {
-            throw new RuntimeException("Failed to encrypt data", e);
+        } catch (GeneralSecurityException e) {
+            throw failed(ENCRYPT, "Failed to encrypt data", e);
+        } finally {
+            encryptCiphers.release(cipher);
+        }
+    }
+
+    // Encrypt with a borrowed cipher, allocates the exact output once
+    private byte[] encryptWith(Cipher cipher, byte[] decryptedData) throws GeneralSecurityException {
+        if (compression != null) decryptedData = compression.compress(decryptedData);
+        checkAligned(decryptedData.length);
+        var start = startTime();
+        var iv = initEncrypt(cipher);
+        var encryptedData = new byte[outputSize(decryptedData.length)];
+        var length = ivLength + cipher.doFinal(decryptedData, 0, decryptedData.length, encryptedData, ivLength);
+        if (iv != null) System.arraycopy(iv, 0, encryptedData, 0, ivLength);
+        record(ENCRYPT, decryptedData.length, start);
+        return length == encryptedData.length ? encryptedData : Arrays.copyOf(encryptedData, length);
+    }
+
+    // Decrypt with a borrowed cipher
+    private byte[] decryptWith(Cipher cipher, byte[] encryptedData) throws GeneralSecurityException {
+        if (encryptedData.length < ivLength + transformer.getTagLength()) throw new IllegalBlockSizeException("Input too short");
+        var start = startTime();
+        initDecrypt(cipher, encryptedData, 0);
+        var decryptedData = cipher.doFinal(encryptedData, ivLength, encryptedData.length - ivLength);
+        record(DECRYPT, encryptedData.length, start);
+        return compression == null ? decryptedData : compression.decompress(decryptedData);
+    }
+
+    // Encrypt into output at offset, returns the number of bytes written
+    public int encrypt(byte[] input, int offset, int length, byte[] output, int outputOffset) {
+        return encrypt(input, offset, length, output, outputOffset, null);
+    }
+
+    // Range encryption that also updates mac with IV and ciphertext chunk by chunk, so the output is MACed in the same pass
+    int encrypt(byte[] input, int offset, int length, byte[] output, int outputOffset, Mac mac) {
+        if (output.length - outputOffset < outputSize(length)) throw new IllegalArgumentException("Output buffer too small");
+        checkAligned(length);
+
+        // Ciphertext lands ivLength bytes ahead of the input, copy overlapping input first
+        if (overwritesInput(input, offset, length, output, outputOffset + ivLength)) {
+            input = Arrays.copyOfRange(input, offset, offset + length);
+            offset = 0;
+        }
+
+        var cipher = encryptCiphers.borrow();
+        try {
+
+            // Encrypt, doFinal resets the cipher so it can be reused
+            var start = startTime();
+            var iv = initEncrypt(cipher);
+            var written = mac == null ? cipher.doFinal(input, offset, length, output, outputOffset + ivLength) : encryptAndMac(cipher, iv, input, offset, length, output, outputOffset + ivLength, mac);
+
+            // Write IV after encryption so in place calls do not overwrite the input
+            if (iv != null) System.arraycopy(iv, 0, output, outputOffset, ivLength);
+            record(ENCRYPT, length, start);
+            return ivLength + written;
+
+        } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+            throw failed(ENCRYPT, "Failed to encrypt data", e);
+        } finally {
+            encryptCiphers.release(cipher);
+        }
+    }
+
+    // Encrypt in chunks and update the MAC with each chunk of ciphertext right after it was written
+    private static int encryptAndMac(Cipher cipher, byte[] iv, byte[] input, int offset, int length, byte[] output, int outputOffset, Mac mac) throws IllegalBlockSizeException, BadPaddingException, ShortBufferException {
+        if (iv != null) mac.update(iv);
+        var written = 0;
+        for (var done = 0; done < length; done += MAC_CHUNK_SIZE) {
+            var chunk = cipher.update(input, offset + done, Math.min(MAC_CHUNK_SIZE, length - done), output, outputOffset + written);
+            mac.update(output, outputOffset + written, chunk);
+            written += chunk;
+        }
+        var last = cipher.doFinal(output, outputOffset + written);
+        mac.update(output, outputOffset + written, last);
+        return written + last;
+    }
+
+    // Whether output written into the same array would run ahead of input not yet read
+    // Not all providers are copy safe in that case, ChaCha20-Poly1305 silently corrupts the data
+    private static boolean overwritesInput(byte[] input, int offset, int length, byte[] output, int outputOffset) {
+        return input == output && outputOffset > offset && outputOffset < offset + length;
+    }
+
+    // Encrypt remaining bytes of src into dst, direct buffers are processed without heap copies
+    public int encrypt(ByteBuffer src, ByteBuffer dst) {
+        if (dst.remaining() < outputSize(src.remaining())) throw new IllegalArgumentException("Output buffer too small");
+        checkAligned(src.remaining());
+        var cipher = encryptCiphers.borrow();
+        try {
+
+            // Encrypt behind the reserved IV header
+            var start = startTime();
+            var length = src.remaining();
+            var iv = initEncrypt(cipher);
+            var header = dst.position();
+            dst.position(header + ivLength);
+            var written = cipher.doFinal(src, dst);
+
+            // Write IV header
+            if (iv != null) dst.put(header, iv);
+            record(ENCRYPT, length, start);
+            return ivLength + written;
+
+        } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+            throw failed(ENCRYPT, "Failed to encrypt data", e);
+        } finally {
+            encryptCiphers.release(cipher);
         }
     }
 
     // Decrypt byte[]
     public byte[] decrypt(byte[] encryptedData) {
-        if (!mode.needsIV() && decryptCache.containsKey(encryptedData)) return decryptCache.get(encryptedData);
+        if (isCacheable()) {
+            var cached = lookup(decryptCache, DECRYPT, encryptedData);
+            if (cached != null) return cached;
+        }
+        var cipher = decryptCiphers.borrow();
         try {
 
-            // Decrypt
-            var cipher = Cipher.getInstance(transformer.getTransformation());
-            cipher.init(DECRYPT_MODE, key);
-            var decryptedData = cipher.doFinal(encryptedData);
+            // Decrypt, doFinal resets the cipher also when it fails
+            var decryptedData = decryptWith(cipher, encryptedData);
 
             // Cache if no IV is needed
             if (!mode.needsIV()) {
@@ -120,18 +477,397 @@ public class Encryption {
             // Return decrypted data
             return decryptedData;
 
-        } catch (NoSuchPaddingException | IllegalBlockSizeException | NoSuchAlgorithmException | BadPaddingException | InvalidKeyException e) {
-            throw new RuntimeException("Failed to decrypt data", e);
+        } catch (GeneralSecurityException e) {
+            throw failed(DECRYPT, "Failed to decrypt data", e);
+        } finally {
+            decryptCiphers.release(cipher);
         }
     }
 
+    // Decrypt into output at offset, returns the number of bytes written
+    public int decrypt(byte[] input, int offset, int length, byte[] output, int outputOffset) {
+        if (overwritesInput(input, offset + ivLength, length - ivLength, output, outputOffset)) {
+            input = Arrays.copyOfRange(input, offset, offset + length);
+            offset = 0;
+        }
+
+        var cipher = decryptCiphers.borrow();
+        try {
+
+            // Decrypt, the IV is read in place from the input
+            if (length < ivLength + transformer.getTagLength()) throw new IllegalBlockSizeException("Input too short");
+            var start = startTime();
+            initDecrypt(cipher, input, offset);
+            var written = cipher.doFinal(input, offset + ivLength, length - ivLength, output, outputOffset);
+            record(DECRYPT, length, start);
+            return written;
+
+        } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+            throw failed(DECRYPT, "Failed to decrypt data", e);
+        } finally {
+            decryptCiphers.release(cipher);
+        }
+    }
+
+    // Decrypt remaining bytes of src into dst, direct buffers are processed without heap copies
+    public int decrypt(ByteBuffer src, ByteBuffer dst) {
+        var cipher = decryptCiphers.borrow();
+        try {
+
+            // Read IV header
+            if (src.remaining() < ivLength + transformer.getTagLength()) throw new IllegalBlockSizeException("Input too short");
+            var start = startTime();
+            var length = src.remaining();
+            if (mode.needsIV()) {
+                var iv = new byte[ivLength];
+                src.get(iv);
+                initDecrypt(cipher, iv, 0);
+            }
+
+            // Decrypt
+            var written = cipher.doFinal(src, dst);
+            record(DECRYPT, length, start);
+            return written;
+
+        } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+            throw failed(DECRYPT, "Failed to decrypt data", e);
+        } finally {
+            decryptCiphers.release(cipher);
+        }
+    }
+
+    // Encrypt a batch, results keep the input order
+    public List<byte[]> encryptAll(List<byte[]> decryptedData) {
+        var inputs = decryptedData.toArray(byte[][]::new);
+        var outputs = new byte[inputs.length][];
+        batch(inputs.length, encryptCiphers, (cipher, i) -> outputs[i] = encryptWith(cipher, inputs[i]), ENCRYPT);
+        return Arrays.asList(outputs);
+    }
+
+    // Decrypt a batch, results keep the input order
+    public List<byte[]> decryptAll(List<byte[]> encryptedData) {
+        var inputs = encryptedData.toArray(byte[][]::new);
+        var outputs = new byte[inputs.length][];
+        batch(inputs.length, decryptCiphers, (cipher, i) -> outputs[i] = decryptWith(cipher, inputs[i]), DECRYPT);
+        return Arrays.asList(outputs);
+    }
+
+    // Encrypt a batch of Strings to Base64
+    public String[] encryptAll(String[] decryptedStrings) {
+        var encoder = Base64.getEncoder();
+        var outputs = new String[decryptedStrings.length];
+        batch(outputs.length, encryptCiphers, (cipher, i) -> outputs[i] = encoder.encodeToString(encryptWith(cipher, decryptedStrings[i].getBytes(charset))), ENCRYPT);
+        return outputs;
+    }
+
+    // Decrypt a batch of Base64 Strings
+    public String[] decryptAll(String[] encryptedStrings) {
+        var decoder = Base64.getDecoder();
+        var outputs = new String[encryptedStrings.length];
+        batch(outputs.length, decryptCiphers, (cipher, i) -> outputs[i] = new String(decryptWith(cipher, decoder.decode(encryptedStrings[i])), charset), DECRYPT);
+        return outputs;
+    }
+
+    // Run a batch with one cipher per slice, large batches are split across the common pool
+    private void batch(int count, Pool<Cipher> ciphers, BatchTask task, Operation operation) {
+        var parallelism = ForkJoinPool.getCommonPoolParallelism();
+        var slices = count < PARALLEL_BATCH_THRESHOLD || parallelism < 2 ? 1 : Math.min(parallelism * 4, count / (PARALLEL_BATCH_THRESHOLD / 4));
+        var sliceSize = (count + slices - 1) / Math.max(1, slices);
+        IntConsumer slice = index -> {
+            var cipher = ciphers.borrow();
+            try {
+                for (var i = index * sliceSize; i < Math.min(count, (index + 1) * sliceSize); i++) task.run(cipher, i);
+            } catch (GeneralSecurityException e) {
+                throw failed(operation, operation == ENCRYPT ? "Failed to encrypt data" : "Failed to decrypt data", e);
+            } finally {
+                ciphers.release(cipher);
+            }
+        };
+        if (slices == 1) slice.accept(0);
+        else IntStream.range(0, slices).parallel().forEach(slice);
+    }
+
+    // Encrypt on virtual threads
+    public CompletableFuture<byte[]> encryptAsync(byte[] decryptedData) {
+        return encryptAsync(decryptedData, ASYNC_EXECUTOR);
+    }
+
+    // Encrypt on the executor, for example a bounded pool for large payloads
+    public CompletableFuture<byte[]> encryptAsync(byte[] decryptedData, Executor executor) {
+        return async(() -> encrypt(decryptedData), executor);
+    }
+
+    // Decrypt on virtual threads
+    public CompletableFuture<byte[]> decryptAsync(byte[] encryptedData) {
+        return decryptAsync(encryptedData, ASYNC_EXECUTOR);
+    }
+
+    // Decrypt on the executor
+    public CompletableFuture<byte[]> decryptAsync(byte[] encryptedData, Executor executor) {
+        return async(() -> decrypt(encryptedData), executor);
+    }
+
+    // Run a task once a permit is free, every task borrows its own cipher from the pools
+    // An interrupt while waiting for a permit fails the returned future and keeps the interrupt status
+    private CompletableFuture<byte[]> async(Supplier<byte[]> task, Executor executor) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+
+            // Release before completion so dependent stages can start new tasks without waiting on this permit
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.get();
+                } finally {
+                    inFlight.release();
+                }
+            }, executor);
+
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    // Ordered Flow processors with bounded upstream demand
+    public EncryptionProcessor encryptingProcessor() {
+        return new EncryptionProcessor(this, ENCRYPT);
+    }
+
+    public EncryptionProcessor decryptingProcessor() {
+        return new EncryptionProcessor(this, DECRYPT);
+    }
+
+    // Deterministic index tokens for equality lookups, keyed by a subkey of this key and the context
+    public BlindIndex blindIndex(String context) {
+        return new BlindIndex(this, context);
+    }
+
+    // Encrypt-then-MAC wrapper, adds integrity to modes without authentication
+    public AuthenticatedEncryption authenticated() {
+        return new AuthenticatedEncryption(this);
+    }
+
+    // Envelope wrapper, bulk data uses random data keys wrapped by this key
+    public EnvelopeEncryption envelope() {
+        return new EnvelopeEncryption(this);
+    }
+
+    // Wrap an OutputStream, the IV header is written immediately, closing finishes encryption
+    public OutputStream encryptingOutputStream(OutputStream outputStream) {
+        try {
+            var cipher = createCipher(ENCRYPT_MODE);
+            var iv = initEncrypt(cipher);
+            if (iv != null) outputStream.write(iv);
+            OutputStream stream = new CipherOutputStream(outputStream, cipher);
+            var maxLength = ivGenerator.getMaxMessageLength();
+            if (maxLength != Long.MAX_VALUE) stream = new LimitedOutputStream(stream, maxLength);
+            return compression == null ? stream : compression.compressingOutputStream(stream);
+        } catch (IOException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+            throw new RuntimeException("Failed to create encrypting stream", e);
+        }
+    }
+
+    // Wrap an InputStream, the IV header is read immediately
+    // AEAD modes (GCM, ChaCha20-Poly1305) hold back all plaintext until the tag is checked at end of input,
+    // so memory grows with the input, use ChunkedEncryption for large authenticated data
+    public InputStream decryptingInputStream(InputStream inputStream) {
+        try {
+            var cipher = createCipher(DECRYPT_MODE);
+            if (mode.needsIV()) {
+                var iv = inputStream.readNBytes(ivLength);
+                if (iv.length != ivLength) throw new IOException("Input too short");
+                initDecrypt(cipher, iv, 0);
+            }
+            var stream = new CipherInputStream(inputStream, cipher);
+            return compression == null ? stream : compression.decompressingInputStream(stream);
+        } catch (IOException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+            throw new RuntimeException("Failed to create decrypting stream", e);
+        }
+    }
+
+    // Encrypt from the current position of input to the end, returns the number of bytes written
+    public long encrypt(FileChannel input, FileChannel output) {
+        checkStreamable();
+        try {
+            checkAligned(input.size() - input.position());
+            checkMessageLength(input.size() - input.position());
+            var start = startTime();
+            var cipher = createCipher(ENCRYPT_MODE);
+            var iv = initEncrypt(cipher);
+            long written = 0;
+            if (iv != null) written += writeFully(output, ByteBuffer.wrap(iv));
+            written += transfer(cipher, input, output);
+            record(ENCRYPT, written, start);
+            return written;
+        } catch (IOException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+            throw failed(ENCRYPT, "Failed to encrypt channel", e);
+        }
+    }
+
+    // Decrypt from the current position of input to the end, returns the number of bytes written
+    public long decrypt(FileChannel input, FileChannel output) {
+        checkStreamable();
+        try {
+            var start = startTime();
+            var cipher = createCipher(DECRYPT_MODE);
+            if (mode.needsIV()) {
+                var iv = ByteBuffer.allocate(ivLength);
+                while (iv.hasRemaining()) if (input.read(iv) < 0) throw new IOException("Input too short");
+                initDecrypt(cipher, iv.array(), 0);
+            }
+            var written = transfer(cipher, input, output);
+            record(DECRYPT, written, start);
+            return written;
+        } catch (IOException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+            throw failed(DECRYPT, "Failed to decrypt channel", e);
+        }
+    }
+
+    // Counter nonces leave 2^32 blocks per message in CTR mode, arrays are always shorter
+    private void checkMessageLength(long length) {
+        var maxLength = ivGenerator.getMaxMessageLength();
+        if (length > maxLength) throw new IllegalArgumentException(transformer + " encrypts at most " + maxLength + " bytes per message, got " + length + " bytes");
+    }
+
+    // Channels promise constant memory, AEAD decryption would buffer the whole ciphertext until doFinal
+    private void checkStreamable() {
+        if (transformer.isAuthenticated()) throw new UnsupportedOperationException(transformer + " buffers the whole input when decrypting, use ChunkedEncryption for large authenticated files");
+    }
+
+    // Pump input through the cipher with pooled direct buffers, memory use is independent of input size for unauthenticated modes
+    private static long transfer(Cipher cipher, FileChannel input, FileChannel output) throws IOException {
+        var inBuffer = STREAM_BUFFERS.borrow();
+        var outBuffer = STREAM_BUFFERS.borrow();
+        try {
+            long written = 0;
+            inBuffer.clear().limit(STREAM_BUFFER_SIZE);
+            while (input.read(inBuffer) >= 0) {
+                inBuffer.flip();
+                outBuffer.clear();
+                cipher.update(inBuffer, outBuffer);
+                written += writeFully(output, outBuffer.flip());
+                inBuffer.compact().limit(STREAM_BUFFER_SIZE);
+            }
+
+            // Finish with the remaining input, padding or tag
+            inBuffer.flip();
+            outBuffer.clear();
+            if (cipher.getOutputSize(inBuffer.remaining()) > outBuffer.remaining()) {
+                var finalBuffer = ByteBuffer.allocate(cipher.getOutputSize(inBuffer.remaining()));
+                cipher.doFinal(inBuffer, finalBuffer);
+                written += writeFully(output, finalBuffer.flip());
+            } else {
+                cipher.doFinal(inBuffer, outBuffer);
+                written += writeFully(output, outBuffer.flip());
+            }
+            return written;
+
+        } catch (ShortBufferException | IllegalBlockSizeException | BadPaddingException e) {
+            throw new IOException("Cipher failed", e);
+        } finally {
+            STREAM_BUFFERS.release(inBuffer);
+            STREAM_BUFFERS.release(outBuffer);
+        }
+    }
+
+    // Write the whole buffer to the channel
+    private static int writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        var length = buffer.remaining();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        return length;
+    }
+
     // Encrypt String
     public String encrypt(String decryptedString) {
         return encrypt(decryptedString, charset);
     }
 
     public String encrypt(String decryptedString, Charset charset) {
-        return Base64.getEncoder().encodeToString(encrypt(decryptedString.getBytes(charset)));
+        return encrypt(decryptedString, charset, Encoding.BASE64);
+    }
+
+    public String encrypt(CharSequence decryptedString, Encoding encoding) {
+        return encrypt(decryptedString, charset, encoding);
+    }
+
+    public String encrypt(CharSequence decryptedString, Charset charset, Encoding encoding) {
+        var output = BUFFERS.borrow();
+        try {
+            var length = encryptEncoded(decryptedString, charset, encoding, output);
+            return new String(output.array(), 0, length, StandardCharsets.ISO_8859_1);
+        } finally {
+            release(output);
+        }
+    }
+
+    // Encrypt String and append the encoded result
+    public void encrypt(CharSequence decryptedString, Encoding encoding, Appendable appendable) {
+        var output = BUFFERS.borrow();
+        try {
+            var length = encryptEncoded(decryptedString, charset, encoding, output);
+            for (var i = 0; i < length; i++) appendable.append((char) output.array()[i]);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append encrypted string", e);
+        } finally {
+            release(output);
+        }
+    }
+
+    // Fused path: characters are encoded into a pooled buffer, encrypted into a second one and Base64 encoded into output
+    private int encryptEncoded(CharSequence decryptedString, Charset charset, Encoding encoding, Buffer output) {
+        var input = BUFFERS.borrow();
+        var encrypted = BUFFERS.borrow();
+        try {
+
+            // Cacheable and compressed modes go through the byte[] path with a plain copy of the input
+            byte[] encryptedData;
+            int length;
+            if (isCacheable() || compression != null) {
+                encryptedData = encrypt(decryptedString.toString().getBytes(charset));
+                length = encryptedData.length;
+            } else {
+                var plainLength = encodeChars(decryptedString, charset, input);
+                encryptedData = encrypted.ensureCapacity(outputSize(plainLength));
+                length = encrypt(input.array(), 0, plainLength, encryptedData, 0);
+            }
+
+            // Base64 encode
+            var array = output.ensureCapacity(encoding.encodedLength(length));
+            return encoding.encode(encryptedData, 0, length, array, 0);
+
+        } finally {
+            release(input);
+            release(encrypted);
+        }
+    }
+
+    // Encode characters into the buffer, returns the number of bytes
+    private int encodeChars(CharSequence decryptedString, Charset charset, Buffer buffer) {
+        var pooled = charset.equals(this.charset);
+        var encoder = pooled ? charEncoders.borrow() : newEncoder(charset);
+        try {
+            var maxLength = (int) Math.ceil(decryptedString.length() * (double) encoder.maxBytesPerChar());
+            var bytes = ByteBuffer.wrap(buffer.ensureCapacity(maxLength));
+            encoder.reset();
+            var result = encoder.encode(CharBuffer.wrap(decryptedString), bytes, true);
+            if (result.isUnderflow()) result = encoder.flush(bytes);
+            if (!result.isUnderflow()) result.throwException();
+            return bytes.position();
+        } catch (CharacterCodingException e) {
+            throw new RuntimeException("Failed to encode string", e);
+        } finally {
+            if (pooled) charEncoders.release(encoder);
+        }
+    }
+
+    // Encoder replacing malformed input like String.getBytes
+    private static CharsetEncoder newEncoder(Charset charset) {
+        return charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
     }
 
     // Decrypt String
@@ -140,7 +876,193 @@ public class Encryption {
     }
 
     public String decrypt(String encryptedString, Charset charset) {
-        return new String(decrypt(Base64.getDecoder().decode(encryptedString)), charset);
+        return decrypt(encryptedString, charset, Encoding.BASE64);
+    }
+
+    public String decrypt(CharSequence encryptedString, Encoding encoding) {
+        return decrypt(encryptedString, charset, encoding);
+    }
+
+    // Fused path: Base64 is decoded into a pooled buffer and decrypted in place
+    public String decrypt(CharSequence encryptedString, Charset charset, Encoding encoding) {
+        var buffer = BUFFERS.borrow();
+        try {
+            var array = buffer.ensureCapacity(encoding.maxDecodedLength(encryptedString.length()));
+            var length = encoding.decode(encryptedString, array, 0);
+
+            // Cacheable and compressed modes go through the byte[] path with a copy of the ciphertext
+            if (isCacheable() || compression != null) return new String(decrypt(Arrays.copyOf(array, length)), charset);
+            return new String(array, 0, decrypt(array, 0, length, array, 0), charset);
+
+        } finally {
+            release(buffer);
+        }
+    }
+
+    // Decrypt String and append the result
+    public void decrypt(CharSequence encryptedString, Encoding encoding, Appendable appendable) {
+        try {
+            appendable.append(decrypt(encryptedString, charset, encoding));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append decrypted string", e);
+        }
+    }
+
+    // Whether results of this instance are cached
+    private boolean isCacheable() {
+        return !mode.needsIV() && encryptCache.isEnabled();
+    }
+
+    // Return buffer to the pool unless it grew too large
+    private static void release(Buffer buffer) {
+        if (buffer.isPoolable()) BUFFERS.release(buffer);
+    }
+
+    // Deterministic single block tokens for identifiers, AES: 16 bytes or 22 Base64url characters
+    // Unused bytes of a block are zero and checked on decryption, so most forged tokens are rejected
+    public int identifierLength(int valueLength) {
+        if (!algorithm.isBlockCipher()) throw new UnsupportedOperationException("Identifier tokens require a block cipher");
+        var blockSize = algorithm.getBlockSize();
+        return (valueLength + blockSize - 1) / blockSize * blockSize;
+    }
+
+    // Encrypt long
+    public byte[] encryptLong(long value) {
+        var output = new byte[identifierLength(Long.BYTES)];
+        encryptLong(value, output, 0);
+        return output;
+    }
+
+    public String encryptLong(long value, Encoding encoding) {
+        return encodeIdentifier(encryptLong(value), encoding);
+    }
+
+    // Encrypt long into output at offset, returns the number of bytes written
+    public int encryptLong(long value, byte[] output, int offset) {
+        var length = identifierLength(Long.BYTES);
+        Arrays.fill(output, offset, offset + length, (byte) 0);
+        LONG.set(output, offset, value);
+        return encryptIdentifier(output, offset, length);
+    }
+
+    // Decrypt long
+    public long decryptLong(byte[] encryptedData) {
+        return decryptLong(encryptedData, 0);
+    }
+
+    public long decryptLong(CharSequence encryptedString, Encoding encoding) {
+        return decryptLong(decodeIdentifier(encryptedString, encoding, identifierLength(Long.BYTES)), 0);
+    }
+
+    public long decryptLong(byte[] encryptedData, int offset) {
+        var block = decryptIdentifier(encryptedData, offset, identifierLength(Long.BYTES), Long.BYTES);
+        return (long) LONG.get(block, 0);
+    }
+
+    // Encrypt int
+    public byte[] encryptInt(int value) {
+        var output = new byte[identifierLength(Integer.BYTES)];
+        INT.set(output, 0, value);
+        encryptIdentifier(output, 0, output.length);
+        return output;
+    }
+
+    public String encryptInt(int value, Encoding encoding) {
+        return encodeIdentifier(encryptInt(value), encoding);
+    }
+
+    // Decrypt int
+    public int decryptInt(byte[] encryptedData) {
+        var block = decryptIdentifier(encryptedData, 0, identifierLength(Integer.BYTES), Integer.BYTES);
+        return (int) INT.get(block, 0);
+    }
+
+    public int decryptInt(CharSequence encryptedString, Encoding encoding) {
+        return decryptInt(decodeIdentifier(encryptedString, encoding, identifierLength(Integer.BYTES)));
+    }
+
+    // Encrypt UUID
+    public byte[] encryptUuid(UUID value) {
+        var output = new byte[identifierLength(16)];
+        LONG.set(output, 0, value.getMostSignificantBits());
+        LONG.set(output, 8, value.getLeastSignificantBits());
+        encryptIdentifier(output, 0, output.length);
+        return output;
+    }
+
+    public String encryptUuid(UUID value, Encoding encoding) {
+        return encodeIdentifier(encryptUuid(value), encoding);
+    }
+
+    // Decrypt UUID
+    public UUID decryptUuid(byte[] encryptedData) {
+        var block = decryptIdentifier(encryptedData, 0, identifierLength(16), 16);
+        return new UUID((long) LONG.get(block, 0), (long) LONG.get(block, 8));
+    }
+
+    public UUID decryptUuid(CharSequence encryptedString, Encoding encoding) {
+        return decryptUuid(decodeIdentifier(encryptedString, encoding, identifierLength(16)));
+    }
+
+    // Encrypt long[] in one cipher call, output holds one token per value
+    public byte[] encryptLongs(long[] values) {
+        var length = identifierLength(Long.BYTES);
+        var output = new byte[values.length * length];
+        for (var i = 0; i < values.length; i++) LONG.set(output, i * length, values[i]);
+        encryptIdentifier(output, 0, output.length);
+        return output;
+    }
+
+    // Decrypt concatenated long tokens in one cipher call
+    public long[] decryptLongs(byte[] encryptedData) {
+        var length = identifierLength(Long.BYTES);
+        if (encryptedData.length % length != 0) throw new IllegalArgumentException("Invalid token length");
+        var block = decryptIdentifier(encryptedData, 0, encryptedData.length, encryptedData.length);
+        var values = new long[encryptedData.length / length];
+        for (var i = 0; i < values.length; i++) {
+            for (var j = i * length + Long.BYTES; j < (i + 1) * length; j++) if (block[j] != 0) throw new IllegalArgumentException("Invalid token");
+            values[i] = (long) LONG.get(block, i * length);
+        }
+        return values;
+    }
+
+    // Encrypt whole blocks in place
+    private int encryptIdentifier(byte[] data, int offset, int length) {
+        var cipher = identifierEncryptCiphers.borrow();
+        try {
+            return cipher.doFinal(data, offset, length, data, offset);
+        } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
+            throw failed(ENCRYPT, "Failed to encrypt identifier", e);
+        } finally {
+            identifierEncryptCiphers.release(cipher);
+        }
+    }
+
+    // Decrypt whole blocks and check that the bytes after the value are zero
+    private byte[] decryptIdentifier(byte[] data, int offset, int length, int valueLength) {
+        if (data.length - offset < length) throw new IllegalArgumentException("Invalid token length");
+        var cipher = identifierDecryptCiphers.borrow();
+        try {
+            var block = cipher.doFinal(data, offset, length);
+            for (var i = valueLength; i < length; i++) if (block[i] != 0) throw new IllegalArgumentException("Invalid token");
+            return block;
+        } catch (IllegalBlockSizeException | BadPaddingException e) {
+            throw failed(DECRYPT, "Failed to decrypt identifier", e);
+        } finally {
+            identifierDecryptCiphers.release(cipher);
+        }
+    }
+
+    private static String encodeIdentifier(byte[] token, Encoding encoding) {
+        var encoded = new byte[encoding.encodedLength(token.length)];
+        encoding.encode(token, 0, token.length, encoded, 0);
+        return new String(encoded, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] decodeIdentifier(CharSequence encryptedString, Encoding encoding, int length) {
+        var token = new byte[encoding.maxDecodedLength(encryptedString.length())];
+        if (encoding.decode(encryptedString, token, 0) != length) throw new IllegalArgumentException("Invalid token length");
+        return token;
     }
 
     // Serialize Object
@@ -165,6 +1087,53 @@ public class Encryption {
         }
     }
 
+    // Encrypt Object with the compact binary serializer
+    public byte[] encryptObject(Object object) {
+        return encryptObject(object, BinarySerializer.INSTANCE);
+    }
+
+    // Encrypt Object, serialized into a pooled buffer that feeds the cipher directly
+    public byte[] encryptObject(Object object, Serializer serializer) {
+        var buffer = BUFFERS.borrow();
+        try {
+            buffer.reset();
+            serializer.serialize(object, buffer);
+            var data = buffer.array();
+            var size = buffer.size();
+            if (compression != null) {
+                data = compression.compress(data, 0, size);
+                size = data.length;
+            }
+            var encryptedData = new byte[outputSize(size)];
+            var length = encrypt(data, 0, size, encryptedData, 0);
+            return length == encryptedData.length ? encryptedData : Arrays.copyOf(encryptedData, length);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize object", e);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    // Decrypt Object with the compact binary serializer
+    public <T> T decryptObject(byte[] encryptedData, Class<T> type) {
+        return decryptObject(encryptedData, type, BinarySerializer.INSTANCE);
+    }
+
+    // Decrypt Object, decrypted into a pooled buffer that is read directly
+    public <T> T decryptObject(byte[] encryptedData, Class<T> type, Serializer serializer) {
+        var buffer = BUFFERS.borrow();
+        try {
+            var array = buffer.ensureCapacity(Math.max(1, decryptOutputSize(encryptedData.length)));
+            var length = decrypt(encryptedData, 0, encryptedData.length, array, 0);
+            if (compression != null) return serializer.deserialize(new ByteArrayInputStream(compression.decompress(array, 0, length)), type);
+            return serializer.deserialize(new ByteArrayInputStream(array, 0, length), type);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize object", e);
+        } finally {
+            release(buffer);
+        }
+    }
+
     // Getters
     public Charset getCharset() {
         return charset;
@@ -174,6 +1143,10 @@ public class Encryption {
         return hash;
     }
 
+    public KeyDerivation getKeyDerivation() {
+        return keyDerivation;
+    }
+
     public Transformer getTransformer() {
         return transformer;
     }
@@ -194,9 +1167,70 @@ public class Encryption {
         return key;
     }
 
+    public Cache getEncryptCache() {
+        return encryptCache;
+    }
+
+    public Cache getDecryptCache() {
+        return decryptCache;
+    }
+
+    public EncryptionMetrics getMetrics() {
+        return metrics;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public int getAvailableAsyncPermits() {
+        return inFlight.availablePermits();
+    }
+
+    // Shared virtual thread executor used when no executor is given
+    public static Executor getAsyncExecutor() {
+        return ASYNC_EXECUTOR;
+    }
+
     // Setter
     public void clearCache() {
         encryptCache.clear();
         decryptCache.clear();
+        encryptCiphers.clear();
+        decryptCiphers.clear();
+        identifierEncryptCiphers.clear();
+        identifierDecryptCiphers.clear();
+    }
+
+    // Fails writes past the message limit of the cipher below
+    private static final class LimitedOutputStream extends FilterOutputStream {
+
+        // Attributes
+        private final long maxLength;
+        private long written;
+
+        // Constructor
+        private LimitedOutputStream(OutputStream outputStream, long maxLength) {
+            super(outputStream);
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (written + len > maxLength) throw new IOException("Message exceeds " + maxLength + " bytes");
+            written += len;
+            out.write(b, off, len);
+        }
+    }
+
+    // Batch task running with a borrowed cipher
+    @FunctionalInterface
+    private interface BatchTask {
+        void run(Cipher cipher, int index) throws GeneralSecurityException;
     }
 }
\ No newline at end of file
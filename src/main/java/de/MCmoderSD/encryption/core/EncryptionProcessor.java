@@ -0,0 +1,133 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Operation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Encrypts or decrypts a Flow of byte[] in order, with at most maxInFlight items requested from upstream
+@SuppressWarnings("unused")
+public class EncryptionProcessor extends SubmissionPublisher<byte[]> implements Flow.Processor<byte[], byte[]> {
+
+    // Attributes
+    private final Encryption encryption;
+    private final Operation operation;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    // Pending results in arrival order
+    private final ConcurrentLinkedQueue<CompletableFuture<byte[]>> pending;
+    private final AtomicInteger work;
+    private volatile Flow.Subscription subscription;
+    private volatile boolean completed;
+    private volatile boolean subscribed;
+    private volatile boolean cancelled;
+
+    // Constructor
+    public EncryptionProcessor(Encryption encryption, Operation operation) {
+        this(encryption, operation, Encryption.getAsyncExecutor(), Encryption.DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    // Full Constructor, the executor runs the cipher work and delivers to subscribers
+    public EncryptionProcessor(Encryption encryption, Operation operation, Executor executor, int maxInFlight) {
+        super(executor, Flow.defaultBufferSize());
+
+        // Check Parameters
+        if (maxInFlight < 1) throw new IllegalArgumentException("Max in flight must be positive");
+
+        // Set Attributes
+        this.encryption = encryption;
+        this.operation = operation;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        pending = new ConcurrentLinkedQueue<>();
+        work = new AtomicInteger();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super byte[]> subscriber) {
+        super.subscribe(subscriber);
+        subscribed = true;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(maxInFlight);
+    }
+
+    @Override
+    public void onNext(byte[] item) {
+        if (cancelled || cancel()) return;
+        var future = CompletableFuture.supplyAsync(() -> operation == Operation.ENCRYPT ? encryption.encrypt(item) : encryption.decrypt(item), executor);
+        pending.add(future);
+        future.whenComplete((result, error) -> drain());
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        pending.clear();
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completed = true;
+        drain();
+    }
+
+    // Publish finished results in order, one thread at a time, and request one item per published result
+    private void drain() {
+        if (work.getAndIncrement() != 0) return;
+        do {
+            CompletableFuture<byte[]> head;
+            while ((head = pending.peek()) != null && head.isDone()) {
+                pending.poll();
+                if (cancel()) return;
+                if (head.isCompletedExceptionally()) {
+                    subscription.cancel();
+                    pending.clear();
+                    closeExceptionally(head.exceptionNow());
+                    return;
+                }
+
+                // submit blocks while subscribers are saturated, which stalls upstream demand
+                submit(head.resultNow());
+                subscription.request(1);
+            }
+            if (completed && pending.isEmpty()) close();
+        } while (work.decrementAndGet() != 0);
+    }
+
+    // Once every downstream subscriber has cancelled, cancel upstream and drop the work not yet published
+    private boolean cancel() {
+        if (!cancelled && (!subscribed || hasSubscribers())) return false;
+        cancelled = true;
+        subscription.cancel();
+        pending.forEach(future -> future.cancel(false));
+        pending.clear();
+        close();
+        return true;
+    }
+
+    // Getters
+    public Encryption getEncryption() {
+        return encryption;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+}
@@ -0,0 +1,202 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Hash;
+import de.MCmoderSD.encryption.enums.Transformer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Shares one lazily built Encryption per configuration and drops instances that were idle too long
+@SuppressWarnings("unused")
+public class EncryptionRegistry {
+
+    // Defaults
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    private static final EncryptionRegistry DEFAULT = new EncryptionRegistry();
+    private static final SecretKeySpec FINGERPRINT_KEY = new SecretKeySpec(IVGenerator.random().generateSeed(32), "HmacSHA256");
+
+    // Attributes
+    private final ConcurrentHashMap<Config, Holder> instances;
+    private final long idleTimeout;                                     // Nanoseconds, 0 = never evict
+    private final AtomicLong nextSweep;
+
+    // Constructor
+    public EncryptionRegistry() {
+        this(DEFAULT_IDLE_TIMEOUT);
+    }
+
+    // Full Constructor, idleTimeout may be null to keep instances forever
+    public EncryptionRegistry(Duration idleTimeout) {
+
+        // Check Parameters
+        if (idleTimeout != null && idleTimeout.isNegative()) throw new IllegalArgumentException("Idle timeout must not be negative");
+
+        // Set Attributes
+        instances = new ConcurrentHashMap<>();
+        this.idleTimeout = idleTimeout == null ? 0 : idleTimeout.toNanos();
+        nextSweep = new AtomicLong(System.nanoTime() + this.idleTimeout);
+    }
+
+    // Process wide registry used by Encryption.of
+    public static EncryptionRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // Get or build the instance for a digest based configuration
+    public Encryption get(String password, Charset charset, Hash hash, Transformer transformer) {
+        return get(password, charset, hash, transformer, null);
+    }
+
+    // Compression may be null, instances with different compression settings are kept apart
+    public Encryption get(String password, Charset charset, Hash hash, Transformer transformer, Compression compression) {
+        var config = fingerprint(password, charset, transformer, hash.name(), null, compression);
+        return get(config, () -> new Encryption(password, charset, hash, transformer, compression));
+    }
+
+    // Get or build the instance for a KDF based configuration
+    public Encryption get(String password, Charset charset, KeyDerivation keyDerivation, Transformer transformer) {
+        return get(password, charset, keyDerivation, transformer, null);
+    }
+
+    public Encryption get(String password, Charset charset, KeyDerivation keyDerivation, Transformer transformer, Compression compression) {
+        var config = fingerprint(password, charset, transformer, keyDerivation.getKDF().name(), keyDerivation, compression);
+        return get(config, () -> new Encryption(password, charset, keyDerivation, transformer, compression));
+    }
+
+    // The map only holds a cheap placeholder, the expensive build happens outside the bin lock
+    private Encryption get(Config config, Supplier<Encryption> factory) {
+        sweep();
+        var holder = instances.computeIfAbsent(config, c -> new Holder(factory));
+        try {
+            return holder.get();
+        } catch (RuntimeException e) {
+            instances.remove(config, holder);   // Do not cache failures
+            throw e;
+        }
+    }
+
+    // Remove instances idle for longer than the timeout, runs at most once per timeout on the calling thread
+    private void sweep() {
+        if (idleTimeout == 0) return;
+        var now = System.nanoTime();
+        var due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + idleTimeout)) return;
+        evictIdle(now);
+    }
+
+    // Remove idle instances now
+    public int evictIdle() {
+        return idleTimeout == 0 ? 0 : evictIdle(System.nanoTime());
+    }
+
+    private int evictIdle(long now) {
+        var evicted = 0;
+        for (var entry : instances.entrySet()) {
+            var holder = entry.getValue();
+            if (holder.isBuilt() && now - holder.lastAccess > idleTimeout && instances.remove(entry.getKey(), holder)) evicted++;
+        }
+        return evicted;
+    }
+
+    // Remove all instances
+    public void clear() {
+        instances.clear();
+    }
+
+    // Getters
+    public int size() {
+        return instances.size();
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout == 0 ? null : Duration.ofNanos(idleTimeout);
+    }
+
+    // Keyed fingerprint of the configuration, the password is never held by the registry
+    private static Config fingerprint(String password, Charset charset, Transformer transformer, String keyType, KeyDerivation keyDerivation, Compression compression) {
+        var passwordBytes = password.getBytes(charset);
+        try {
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(FINGERPRINT_KEY);
+            var name = (charset.name() + "/" + transformer.name() + "/" + keyType).getBytes(StandardCharsets.UTF_8);
+            mac.update(ByteBuffer.allocate(4).putInt(name.length).array());
+            mac.update(name);
+            if (keyDerivation != null) {
+                var salt = keyDerivation.getSalt();
+                mac.update(ByteBuffer.allocate(16).putInt(keyDerivation.getCost()).putInt(keyDerivation.getBlockSize()).putInt(keyDerivation.getParallelism()).putInt(salt.length).array());
+                mac.update(salt);
+            }
+            if (compression == null) mac.update((byte) 0);
+            else mac.update(ByteBuffer.allocate(9).put((byte) 1).putInt(compression.getLevel()).putInt(compression.getThreshold()).array());
+            mac.update(passwordBytes);
+            return new Config(mac.doFinal());
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Failed to fingerprint configuration", e);
+        } finally {
+            Arrays.fill(passwordBytes, (byte) 0);
+        }
+    }
+
+    // Lazily built instance, concurrent callers for the same configuration wait for one build
+    private static final class Holder {
+
+        // Attributes
+        private final ReentrantLock lock;
+        private Supplier<Encryption> factory;
+        private volatile Encryption instance;
+        private volatile long lastAccess;
+
+        // Constructor
+        private Holder(Supplier<Encryption> factory) {
+            lock = new ReentrantLock();
+            this.factory = factory;
+            lastAccess = System.nanoTime();
+        }
+
+        // Build on first access, ReentrantLock keeps waiting virtual threads unpinned
+        private Encryption get() {
+            lastAccess = System.nanoTime();
+            var current = instance;
+            if (current != null) return current;
+            lock.lock();
+            try {
+                if (instance == null) {
+                    instance = factory.get();
+                    factory = null;
+                }
+                return instance;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isBuilt() {
+            return instance != null;
+        }
+    }
+
+    // Content based configuration key
+    private record Config(byte[] value) {
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Config other && Arrays.equals(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(value);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Transformer;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static de.MCmoderSD.encryption.enums.Mode.GCM;
+import static javax.crypto.Cipher.DECRYPT_MODE;
+import static javax.crypto.Cipher.ENCRYPT_MODE;
+
+// Envelope encryption, bulk data is sealed under a random data key and only the data key is encrypted with the master Encryption
+// Format: VERSION | wrapped key length (2) | wrapped key | nonce | ciphertext | tag
+// The version byte is authenticated as AAD, the wrapped key is not so rewrap can leave the bulk data untouched,
+// a modified wrapped key unwraps to a different data key and fails the tag
+@SuppressWarnings("unused")
+public class EnvelopeEncryption {
+
+    // Header
+    public static final byte VERSION = 1;
+    private static final int PREFIX_LENGTH = 3;                 // Version | wrapped key length
+    private static final int AAD_LENGTH = 1;                    // Version
+
+    // Defaults
+    public static final Transformer DEFAULT_TRANSFORMER = Transformer.AES_GCM_NOPAD;
+    public static final long DEFAULT_CACHE_ENTRIES = 1024;
+
+    // Attributes
+    private final Encryption master;
+    private final Transformer transformer;
+    private final int keyLength;
+    private final int nonceLength;
+    private final int tagLength;
+    private final Cache dataKeys;                               // Wrapped to unwrapped data keys
+    private final Pool<Cipher> ciphers;
+
+    // Constructor
+    public EnvelopeEncryption(Encryption master) {
+        this(master, DEFAULT_TRANSFORMER);
+    }
+
+    public EnvelopeEncryption(Encryption master, Transformer transformer) {
+        this(master, transformer, DEFAULT_CACHE_ENTRIES, null);
+    }
+
+    // Full Constructor, the data transformer must be an AEAD so a wrong or swapped data key is detected
+    public EnvelopeEncryption(Encryption master, Transformer transformer, long maxCachedKeys, Duration ttl) {
+
+        // Check Parameters
+        if (master == null) throw new IllegalArgumentException("Master encryption must not be null");
+        if (!transformer.isAuthenticated()) throw new IllegalArgumentException("Data transformer must be an AEAD: " + transformer);
+
+        // Set Attributes
+        this.master = master;
+        this.transformer = transformer;
+        keyLength = transformer.getAlgorithm().getKeySizes().getLast();
+        nonceLength = transformer.getIVLength();
+        tagLength = transformer.getTagLength();
+        dataKeys = new Cache(maxCachedKeys, maxCachedKeys * (master.outputSize(keyLength) + keyLength), ttl);
+        ciphers = new Pool<>(this::createCipher);
+    }
+
+    // Create an uninitialized cipher, every record has its own nonce
+    private Cipher createCipher() {
+        try {
+            return Cipher.getInstance(transformer.getTransformation());
+        } catch (NoSuchPaddingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to create cipher", e);
+        }
+    }
+
+    private AlgorithmParameterSpec parameterSpec(byte[] nonce, int offset) {
+        if (transformer.getMode() == GCM) return new GCMParameterSpec(tagLength * 8, nonce, offset, nonceLength);
+        return new IvParameterSpec(nonce, offset, nonceLength);
+    }
+
+    // Generate and wrap a new data key, reuse it for a batch of records to wrap only once
+    public DataKey newDataKey() {
+        var key = new byte[keyLength];
+        IVGenerator.random().nextBytes(key);
+        var wrapped = wrap(master, key);
+        dataKeys.put(wrapped, key);
+        return new DataKey(new SecretKeySpec(key, transformer.getAlgorithm().name()), wrapped, new IVGenerator(transformer));
+    }
+
+    // Encrypt under a fresh data key
+    public byte[] encrypt(byte[] decryptedData) {
+        return encrypt(newDataKey(), decryptedData);
+    }
+
+    // Encrypt under a given data key, the wrapped key is stored in front of every record
+    public byte[] encrypt(DataKey dataKey, byte[] decryptedData) {
+        var wrapped = dataKey.wrapped;
+        var headerLength = PREFIX_LENGTH + wrapped.length;
+        var encryptedData = new byte[headerLength + nonceLength + decryptedData.length + tagLength];
+        encryptedData[0] = VERSION;
+        encryptedData[1] = (byte) (wrapped.length >>> 8);
+        encryptedData[2] = (byte) wrapped.length;
+        System.arraycopy(wrapped, 0, encryptedData, PREFIX_LENGTH, wrapped.length);
+        dataKey.ivGenerator.next(encryptedData, headerLength);
+
+        var cipher = ciphers.borrow();
+        try {
+            cipher.init(ENCRYPT_MODE, dataKey.key, parameterSpec(encryptedData, headerLength));
+            cipher.updateAAD(encryptedData, 0, AAD_LENGTH);
+            cipher.doFinal(decryptedData, 0, decryptedData.length, encryptedData, headerLength + nonceLength);
+            return encryptedData;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to encrypt data", e);
+        } finally {
+            ciphers.release(cipher);
+        }
+    }
+
+    // Decrypt with the data key from the header, unwrapped keys are cached
+    public byte[] decrypt(byte[] encryptedData) {
+        var headerLength = headerLength(encryptedData);
+        var key = unwrap(Arrays.copyOfRange(encryptedData, PREFIX_LENGTH, headerLength));
+        var offset = headerLength + nonceLength;
+        if (encryptedData.length < offset + tagLength) throw new IllegalArgumentException("Input too short");
+
+        var cipher = ciphers.borrow();
+        try {
+            cipher.init(DECRYPT_MODE, key, parameterSpec(encryptedData, headerLength));
+            cipher.updateAAD(encryptedData, 0, AAD_LENGTH);
+            return cipher.doFinal(encryptedData, offset, encryptedData.length - offset);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to decrypt data", e);
+        } finally {
+            ciphers.release(cipher);
+        }
+    }
+
+    // Encrypt String to Base64
+    public String encrypt(String decryptedString) {
+        return Base64.getEncoder().encodeToString(encrypt(decryptedString.getBytes(master.getCharset())));
+    }
+
+    public String encrypt(DataKey dataKey, String decryptedString) {
+        return Base64.getEncoder().encodeToString(encrypt(dataKey, decryptedString.getBytes(master.getCharset())));
+    }
+
+    // Decrypt Base64 String
+    public String decrypt(String encryptedString) {
+        return new String(decrypt(Base64.getDecoder().decode(encryptedString)), master.getCharset());
+    }
+
+    // Replace the wrapped key with one under the target master key, the bulk data is copied unchanged
+    public byte[] rewrap(byte[] encryptedData, EnvelopeEncryption target) {
+        if (target.transformer != transformer) throw new IllegalArgumentException("Target uses another data transformer");
+        var headerLength = headerLength(encryptedData);
+        var key = unwrap(Arrays.copyOfRange(encryptedData, PREFIX_LENGTH, headerLength)).getEncoded();
+        var wrapped = wrap(target.master, key);
+        target.dataKeys.put(wrapped, key);
+
+        var rewrapped = new byte[PREFIX_LENGTH + wrapped.length + encryptedData.length - headerLength];
+        rewrapped[0] = VERSION;
+        rewrapped[1] = (byte) (wrapped.length >>> 8);
+        rewrapped[2] = (byte) wrapped.length;
+        System.arraycopy(wrapped, 0, rewrapped, PREFIX_LENGTH, wrapped.length);
+        System.arraycopy(encryptedData, headerLength, rewrapped, PREFIX_LENGTH + wrapped.length, encryptedData.length - headerLength);
+        return rewrapped;
+    }
+
+    // Wrapped key of a record, records of one batch share it
+    public static byte[] wrappedKey(byte[] encryptedData) {
+        return Arrays.copyOfRange(encryptedData, PREFIX_LENGTH, headerLength(encryptedData));
+    }
+
+    // Validate the header and return its length
+    private static int headerLength(byte[] encryptedData) {
+        if (encryptedData.length < PREFIX_LENGTH) throw new IllegalArgumentException("Input too short");
+        if (encryptedData[0] != VERSION) throw new IllegalArgumentException("Unsupported header version " + encryptedData[0]);
+        var headerLength = PREFIX_LENGTH + ((encryptedData[1] & 0xFF) << 8 | (encryptedData[2] & 0xFF));
+        if (encryptedData.length < headerLength) throw new IllegalArgumentException("Input too short");
+        return headerLength;
+    }
+
+    // Wrap through the uncached, uncompressed range API so plaintext data keys never land in the master's caches
+    private static byte[] wrap(Encryption master, byte[] key) {
+        var wrapped = new byte[master.outputSize(key.length)];
+        var length = master.encrypt(key, 0, key.length, wrapped, 0);
+        if (length > 0xFFFF) throw new IllegalStateException("Wrapped key too long");
+        return length == wrapped.length ? wrapped : Arrays.copyOf(wrapped, length);
+    }
+
+    // Unwrap through the cache, the master key is only used on a miss and its caches are bypassed
+    private SecretKeySpec unwrap(byte[] wrapped) {
+        var key = dataKeys.get(wrapped);
+        if (key == null) {
+            var buffer = new byte[Math.max(keyLength, master.decryptOutputSize(wrapped.length))];
+            var length = master.decrypt(wrapped, 0, wrapped.length, buffer, 0);
+            key = Arrays.copyOf(buffer, length);
+            Arrays.fill(buffer, (byte) 0);
+            if (key.length != keyLength) throw new IllegalArgumentException("Invalid data key length");
+            dataKeys.put(wrapped, key);
+        }
+        return new SecretKeySpec(key, transformer.getAlgorithm().name());
+    }
+
+    // Drop all unwrapped data keys
+    public void clearCache() {
+        dataKeys.clear();
+    }
+
+    // Getters
+    public Encryption getMaster() {
+        return master;
+    }
+
+    public Transformer getTransformer() {
+        return transformer;
+    }
+
+    public Cache getCache() {
+        return dataKeys;
+    }
+
+    // Data key with its wrapped form and a nonce counter, safe to share between threads
+    public static final class DataKey {
+
+        // Attributes
+        private final SecretKeySpec key;
+        private final byte[] wrapped;
+        private final IVGenerator ivGenerator;
+
+        // Constructor
+        private DataKey(SecretKeySpec key, byte[] wrapped, IVGenerator ivGenerator) {
+            this.key = key;
+            this.wrapped = wrapped;
+            this.ivGenerator = ivGenerator;
+        }
+
+        // Getters
+        public byte[] getWrapped() {
+            return wrapped.clone();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Hash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.stream.IntStream;
+
+// Digests for a Hash with pooled MessageDigest instances, so there is no provider lookup per call
+@SuppressWarnings("unused")
+public final class Hasher {
+
+    // Tree hashing
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;  // 8 MiB per leaf
+    private static final byte LEAF = 0;
+    private static final byte NODE = 1;
+
+    // Shared instances, one per Hash
+    private static final Hasher[] INSTANCES = new Hasher[Hash.values().length];
+
+    static {
+        for (var hash : Hash.values()) INSTANCES[hash.ordinal()] = new Hasher(hash);
+    }
+
+    // Attributes
+    private final Hash hash;
+    private final Pool<MessageDigest> digests;
+
+    // Constructor
+    private Hasher(Hash hash) {
+        this.hash = hash;
+        digests = new Pool<>(this::newDigest);
+    }
+
+    // Shared instance of a Hash
+    public static Hasher of(Hash hash) {
+        return INSTANCES[hash.ordinal()];
+    }
+
+    // New digest for streaming updates
+    public MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(hash.getName());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to create digest", e);
+        }
+    }
+
+    // HMAC under a key, keep it to MAC many messages under the same key
+    public Hmac hmac(byte[] key) {
+        return new Hmac(hash, key);
+    }
+
+    // Digest of an array
+    public byte[] digest(byte[] data) {
+        return digest(data, 0, data.length);
+    }
+
+    public byte[] digest(byte[] data, int offset, int length) {
+        var digest = digests.borrow();
+        try {
+            digest.update(data, offset, length);
+            return digest.digest();
+        } finally {
+            digests.release(digest);
+        }
+    }
+
+    // Digest of the remaining bytes of a buffer, the position is moved to the limit
+    public byte[] digest(ByteBuffer data) {
+        var digest = digests.borrow();
+        try {
+            digest.update(data);
+            return digest.digest();
+        } finally {
+            digests.release(digest);
+        }
+    }
+
+    // Parallel tree hash of a file with the default chunk size
+    public byte[] treeDigest(Path file) {
+        return treeDigest(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    // Parallel tree hash: leaves H(0 | chunk) are hashed concurrently from memory mapped chunks,
+    // the root is H(1 | length | leaves), so the result depends on the chunk size and differs from digest()
+    public byte[] treeDigest(Path file, int chunkSize) {
+
+        // Check Parameters
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive");
+
+        var bytes = hash.getBytes();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            var chunks = Math.max(1, (size + chunkSize - 1) / chunkSize);
+            var leavesLength = chunks * bytes;
+            if (leavesLength > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Chunk size " + chunkSize + " is too small for " + size + " bytes");
+            var count = (int) chunks;
+            var leaves = new byte[(int) leavesLength];
+            IntStream.range(0, count).parallel().forEach(index -> {
+                var offset = (long) index * chunkSize;
+                var length = Math.min(chunkSize, size - offset);
+                var digest = digests.borrow();
+                try {
+                    digest.update(LEAF);
+                    if (length > 0) digest.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+                    digest.digest(leaves, (int) ((long) index * bytes), bytes);
+                } catch (IOException | GeneralSecurityException e) {
+                    digest.reset();
+                    throw new RuntimeException("Failed to hash chunk " + index, e);
+                } finally {
+                    digests.release(digest);
+                }
+            });
+
+            // Root over length and leaves
+            var digest = digests.borrow();
+            try {
+                digest.update(NODE);
+                digest.update(ByteBuffer.allocate(Long.BYTES).putLong(size).flip());
+                digest.update(leaves);
+                return digest.digest();
+            } finally {
+                digests.release(digest);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to hash file", e);
+        }
+    }
+
+    // Getters
+    public Hash getHash() {
+        return hash;
+    }
+}
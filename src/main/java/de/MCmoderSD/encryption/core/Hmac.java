@@ -0,0 +1,76 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Hash;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+
+// HMAC under one key, initialized Mac instances are pooled so the key is only set up once per instance
+@SuppressWarnings("unused")
+public final class Hmac {
+
+    // Attributes
+    private final Hash hash;
+    private final Pool<Mac> macs;
+
+    // Constructor
+    public Hmac(Hash hash, byte[] key) {
+
+        // Check Parameters
+        if (key == null || key.length == 0) throw new IllegalArgumentException("Key must not be empty");
+
+        // Set Attributes
+        this.hash = hash;
+        var spec = new SecretKeySpec(key, hash.getHmacName());
+        macs = new Pool<>(() -> createMac(spec));
+    }
+
+    private static Mac createMac(SecretKeySpec key) {
+        try {
+            var mac = Mac.getInstance(key.getAlgorithm());
+            mac.init(key);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Failed to create MAC", e);
+        }
+    }
+
+    // Initialized Mac for streaming updates, owned by the caller and not returned to the pool
+    public Mac newMac() {
+        return macs.borrow();
+    }
+
+    // MAC of an array
+    public byte[] mac(byte[] data) {
+        return mac(data, 0, data.length);
+    }
+
+    public byte[] mac(byte[] data, int offset, int length) {
+        var mac = macs.borrow();
+        try {
+            mac.update(data, offset, length);
+            return mac.doFinal();
+        } finally {
+            macs.release(mac);
+        }
+    }
+
+    // MAC of the remaining bytes of a buffer, the position is moved to the limit
+    public byte[] mac(ByteBuffer data) {
+        var mac = macs.borrow();
+        try {
+            mac.update(data);
+            return mac.doFinal();
+        } finally {
+            macs.release(mac);
+        }
+    }
+
+    // Getters
+    public Hash getHash() {
+        return hash;
+    }
+}
@@ -0,0 +1,121 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Transformer;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static de.MCmoderSD.encryption.enums.Mode.*;
+
+// Generates IVs and nonces without contending on a single SecureRandom
+@SuppressWarnings("unused")
+public class IVGenerator {
+
+    // The JCE increments all 128 counter bits, more blocks per message would carry into the nonce of the next one
+    public static final long MAX_CTR_BLOCKS = 1L << 32;
+
+    // Striped DRBGs, indexed by thread id so platform and virtual threads spread across them
+    private static final SecureRandom[] RANDOMS;
+    private static final int MASK;
+
+    // Static Initializer
+    static {
+        var count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        RANDOMS = new SecureRandom[count];
+        for (var i = 0; i < count; i++) RANDOMS[i] = createRandom();
+        MASK = count - 1;
+    }
+
+    // Attributes
+    private final int length;
+    private final boolean counterBased;
+    private final long maxMessageLength;
+    private final int prefix;
+    private final AtomicLong counter;
+
+    // Constructor
+    public IVGenerator(Transformer transformer) {
+
+        // Set Attributes
+        length = transformer.getIVLength();
+
+        // AEAD and AES-CTR need unique rather than unpredictable nonces, a counter is cheapest
+        var mode = transformer.getMode();
+        counterBased = mode.isAuthenticated() || (mode == CTR && length >= 16);
+        maxMessageLength = counterBased && mode == CTR ? MAX_CTR_BLOCKS * transformer.getAlgorithm().getBlockSize() : Long.MAX_VALUE;
+
+        // Random prefix and start value so instances sharing a key do not overlap
+        var random = random();
+        prefix = random.nextInt();
+        counter = new AtomicLong(random.nextLong());
+    }
+
+    // Create DRBG, falling back to the platform default
+    private static SecureRandom createRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    // Get the DRBG stripe of the current thread
+    public static SecureRandom random() {
+        return RANDOMS[(int) Thread.currentThread().threadId() & MASK];
+    }
+
+    // Generate a new IV
+    public byte[] next() {
+        var iv = new byte[length];
+        next(iv, 0);
+        return iv;
+    }
+
+    // Write a new IV into the buffer at offset
+    public void next(byte[] buffer, int offset) {
+        if (length == 0) return;
+        if (!counterBased) {
+            if (offset == 0 && buffer.length == length) random().nextBytes(buffer);
+            else {
+                var iv = new byte[length];
+                random().nextBytes(iv);
+                System.arraycopy(iv, 0, buffer, offset, length);
+            }
+            return;
+        }
+
+        // Nonce layout: 4 byte prefix | 8 byte counter | CTR only: 4 byte zero block counter, messages are capped at MAX_CTR_BLOCKS
+        var value = counter.getAndIncrement();
+        writeInt(buffer, offset, prefix);
+        writeLong(buffer, offset + 4, value);
+        for (var i = offset + 12; i < offset + length; i++) buffer[i] = 0;
+    }
+
+    // Getters
+    public int getLength() {
+        return length;
+    }
+
+    public boolean isCounterBased() {
+        return counterBased;
+    }
+
+    // Longest message in bytes under one nonce, Long.MAX_VALUE if the nonce has no block counter to overflow
+    public long getMaxMessageLength() {
+        return maxMessageLength;
+    }
+
+    // Big endian writers
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    private static void writeLong(byte[] buffer, int offset, long value) {
+        writeInt(buffer, offset, (int) (value >>> 32));
+        writeInt(buffer, offset + 4, (int) value);
+    }
+}
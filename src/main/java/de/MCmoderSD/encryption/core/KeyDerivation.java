@@ -0,0 +1,296 @@
+package de.MCmoderSD.encryption.core;
+
+import de.MCmoderSD.encryption.enums.Algorithm;
+import de.MCmoderSD.encryption.enums.KDF;
+import de.MCmoderSD.encryption.metrics.EncryptionMetrics;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Salted, slow key derivation with a process wide cache of derived keys
+@SuppressWarnings("unused")
+public class KeyDerivation {
+
+    // Defaults
+    public static final int DEFAULT_PBKDF2_ITERATIONS = 600_000;    // OWASP recommendation for PBKDF2-HMAC-SHA256
+    public static final int DEFAULT_SCRYPT_N = 1 << 15;             // 32 MiB with r = 8
+    public static final int DEFAULT_SCRYPT_R = 8;
+    public static final int DEFAULT_SCRYPT_P = 1;
+    public static final int MIN_SALT_LENGTH = 8;
+
+    // Derived keys, keyed by a fingerprint of password, salt, parameters and algorithm
+    private static final Cache KEY_CACHE = new Cache(1024, 1024 * 1024, null);
+    private static final ConcurrentHashMap<Fingerprint, CompletableFuture<byte[]>> IN_FLIGHT = new ConcurrentHashMap<>();
+    private static final SecretKeySpec FINGERPRINT_KEY = new SecretKeySpec(IVGenerator.random().generateSeed(32), "HmacSHA256");
+    private static volatile EncryptionMetrics metrics = EncryptionMetrics.NOOP;
+
+    // Attributes
+    private final KDF kdf;
+    private final byte[] salt;
+    private final int cost;
+    private final int blockSize;
+    private final int parallelism;
+
+    // Constructor
+    private KeyDerivation(KDF kdf, byte[] salt, int cost, int blockSize, int parallelism) {
+
+        // Check Parameters
+        if (salt == null || salt.length < MIN_SALT_LENGTH) throw new IllegalArgumentException("Salt must be at least " + MIN_SALT_LENGTH + " bytes");
+        if (cost < 1) throw new IllegalArgumentException("Cost must be positive");
+        if (kdf == KDF.SCRYPT && (cost < 2 || Integer.bitCount(cost) != 1)) throw new IllegalArgumentException("scrypt N must be a power of two greater than 1");
+        if (blockSize < 1 || parallelism < 1) throw new IllegalArgumentException("Block size and parallelism must be positive");
+        if (kdf == KDF.SCRYPT && (long) 128 * blockSize * cost > Integer.MAX_VALUE) throw new IllegalArgumentException("scrypt memory cost too high");
+
+        // Set Attributes
+        this.kdf = kdf;
+        this.salt = salt.clone();
+        this.cost = cost;
+        this.blockSize = blockSize;
+        this.parallelism = parallelism;
+    }
+
+    // PBKDF2-HMAC-SHA256 with default iterations
+    public static KeyDerivation pbkdf2(byte[] salt) {
+        return pbkdf2(salt, DEFAULT_PBKDF2_ITERATIONS);
+    }
+
+    public static KeyDerivation pbkdf2(byte[] salt, int iterations) {
+        return new KeyDerivation(KDF.PBKDF2_SHA256, salt, iterations, 1, 1);
+    }
+
+    // scrypt with default parameters
+    public static KeyDerivation scrypt(byte[] salt) {
+        return scrypt(salt, DEFAULT_SCRYPT_N, DEFAULT_SCRYPT_R, DEFAULT_SCRYPT_P);
+    }
+
+    public static KeyDerivation scrypt(byte[] salt, int n, int r, int p) {
+        return new KeyDerivation(KDF.SCRYPT, salt, n, r, p);
+    }
+
+    // Derive a key for the algorithm, the expensive work is done once per distinct input in this process
+    public SecretKeySpec deriveKey(String password, Charset charset, Algorithm algorithm) {
+        var listener = metrics;
+        var start = listener == EncryptionMetrics.NOOP ? 0 : System.nanoTime();
+        var passwordBytes = password.getBytes(charset);
+        var length = algorithm.getKeySizes().getLast();
+        var fingerprint = fingerprint(passwordBytes, algorithm, length);
+
+        try {
+
+            // Cached
+            var cached = KEY_CACHE.get(fingerprint.value);
+            if (cached != null) {
+                if (start != 0) listener.onKeyDerivation(kdf, true, System.nanoTime() - start);
+                return new SecretKeySpec(cached, algorithm.name());
+            }
+
+            // Derive once, concurrent callers for the same key wait for the same result
+            var future = new CompletableFuture<byte[]>();
+            var running = IN_FLIGHT.putIfAbsent(fingerprint, future);
+            if (running != null) return new SecretKeySpec(running.join(), algorithm.name());
+            try {
+                var key = derive(passwordBytes, length);
+                KEY_CACHE.put(fingerprint.value, key);
+                future.complete(key);
+                if (start != 0) listener.onKeyDerivation(kdf, false, System.nanoTime() - start);
+                return new SecretKeySpec(key, algorithm.name());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                throw e;
+            } finally {
+                IN_FLIGHT.remove(fingerprint, future);
+            }
+
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to derive key", e.getCause());
+        } finally {
+            Arrays.fill(passwordBytes, (byte) 0);
+        }
+    }
+
+    // Derive without touching the cache
+    public byte[] derive(byte[] password, int length) {
+        try {
+            return switch (kdf) {
+                case PBKDF2_SHA256 -> pbkdf2(kdf.getMac(), password, salt, cost, length);
+                case SCRYPT -> scrypt(password, length);
+            };
+        } catch (NoSuchAlgorithmException | InvalidKeyException | ShortBufferException e) {
+            throw new RuntimeException("Failed to derive key", e);
+        }
+    }
+
+    // Keyed fingerprint, the password never appears in the cache in a form usable without the process secret
+    private Fingerprint fingerprint(byte[] password, Algorithm algorithm, int length) {
+        try {
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(FINGERPRINT_KEY);
+            var name = (kdf.name() + "/" + algorithm.name()).getBytes(StandardCharsets.UTF_8);
+            mac.update(ByteBuffer.allocate(24).putInt(name.length).putInt(cost).putInt(blockSize).putInt(parallelism).putInt(length).putInt(salt.length).array());
+            mac.update(name);
+            mac.update(salt);
+            mac.update(password);
+            return new Fingerprint(mac.doFinal());
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Failed to fingerprint key", e);
+        }
+    }
+
+    // PBKDF2 (RFC 8018) on raw password bytes so the configured charset is respected
+    private static byte[] pbkdf2(String macName, byte[] password, byte[] salt, int iterations, int length) throws NoSuchAlgorithmException, InvalidKeyException, ShortBufferException {
+        // SecretKeySpec rejects empty keys, HMAC zero pads keys so a single zero byte is equivalent
+        var mac = Mac.getInstance(macName);
+        mac.init(new SecretKeySpec(password.length == 0 ? new byte[1] : password, macName));
+        var hashLength = mac.getMacLength();
+        var output = new byte[length];
+        var u = new byte[hashLength];
+        var t = new byte[hashLength];
+        for (int block = 1, offset = 0; offset < length; block++, offset += hashLength) {
+
+            // U1 = PRF(P, S || INT(i))
+            mac.update(salt);
+            mac.update(new byte[] {(byte) (block >>> 24), (byte) (block >>> 16), (byte) (block >>> 8), (byte) block});
+            mac.doFinal(u, 0);
+            System.arraycopy(u, 0, t, 0, hashLength);
+
+            // Uj = PRF(P, Uj-1), T = U1 ^ ... ^ Uc
+            for (var i = 1; i < iterations; i++) {
+                mac.update(u);
+                mac.doFinal(u, 0);
+                for (var j = 0; j < hashLength; j++) t[j] ^= u[j];
+            }
+            System.arraycopy(t, 0, output, offset, Math.min(hashLength, length - offset));
+        }
+        return output;
+    }
+
+    // scrypt (RFC 7914)
+    private byte[] scrypt(byte[] password, int length) throws NoSuchAlgorithmException, InvalidKeyException, ShortBufferException {
+        var r = blockSize;
+        var blockBytes = 128 * r;
+        var b = pbkdf2(kdf.getMac(), password, salt, 1, parallelism * blockBytes);
+        var x = new int[32 * r];
+        var v = new int[32 * r * cost];
+        var y = new int[32 * r];
+        for (var i = 0; i < parallelism; i++) roMix(b, i * blockBytes, r, x, y, v);
+        return pbkdf2(kdf.getMac(), password, b, 1, length);
+    }
+
+    // ROMix over one block of B in place
+    private void roMix(byte[] b, int offset, int r, int[] x, int[] y, int[] v) {
+        var words = 32 * r;
+        var buffer = ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN);
+        for (var i = 0; i < words; i++) x[i] = buffer.getInt(offset + i * 4);
+        for (var i = 0; i < cost; i++) {
+            System.arraycopy(x, 0, v, i * words, words);
+            blockMix(x, y, r);
+        }
+        for (var i = 0; i < cost; i++) {
+            var j = x[(2 * r - 1) * 16] & (cost - 1);
+            for (var k = 0; k < words; k++) x[k] ^= v[j * words + k];
+            blockMix(x, y, r);
+        }
+        for (var i = 0; i < words; i++) buffer.putInt(offset + i * 4, x[i]);
+    }
+
+    // BlockMix with Salsa20/8, result is written back into b
+    private static void blockMix(int[] b, int[] y, int r) {
+        var t = new int[16];
+        System.arraycopy(b, (2 * r - 1) * 16, t, 0, 16);
+        for (var i = 0; i < 2 * r; i++) {
+            for (var k = 0; k < 16; k++) t[k] ^= b[i * 16 + k];
+            salsa208(t);
+            System.arraycopy(t, 0, y, i * 16, 16);
+        }
+
+        // Even blocks first, then odd blocks
+        for (var i = 0; i < r; i++) System.arraycopy(y, 2 * i * 16, b, i * 16, 16);
+        for (var i = 0; i < r; i++) System.arraycopy(y, (2 * i + 1) * 16, b, (r + i) * 16, 16);
+    }
+
+    // Salsa20/8 core
+    private static void salsa208(int[] b) {
+        int x0 = b[0], x1 = b[1], x2 = b[2], x3 = b[3], x4 = b[4], x5 = b[5], x6 = b[6], x7 = b[7];
+        int x8 = b[8], x9 = b[9], x10 = b[10], x11 = b[11], x12 = b[12], x13 = b[13], x14 = b[14], x15 = b[15];
+        for (var i = 0; i < 8; i += 2) {
+            x4 ^= Integer.rotateLeft(x0 + x12, 7);  x8 ^= Integer.rotateLeft(x4 + x0, 9);
+            x12 ^= Integer.rotateLeft(x8 + x4, 13); x0 ^= Integer.rotateLeft(x12 + x8, 18);
+            x9 ^= Integer.rotateLeft(x5 + x1, 7);   x13 ^= Integer.rotateLeft(x9 + x5, 9);
+            x1 ^= Integer.rotateLeft(x13 + x9, 13); x5 ^= Integer.rotateLeft(x1 + x13, 18);
+            x14 ^= Integer.rotateLeft(x10 + x6, 7); x2 ^= Integer.rotateLeft(x14 + x10, 9);
+            x6 ^= Integer.rotateLeft(x2 + x14, 13); x10 ^= Integer.rotateLeft(x6 + x2, 18);
+            x3 ^= Integer.rotateLeft(x15 + x11, 7); x7 ^= Integer.rotateLeft(x3 + x15, 9);
+            x11 ^= Integer.rotateLeft(x7 + x3, 13); x15 ^= Integer.rotateLeft(x11 + x7, 18);
+            x1 ^= Integer.rotateLeft(x0 + x3, 7);   x2 ^= Integer.rotateLeft(x1 + x0, 9);
+            x3 ^= Integer.rotateLeft(x2 + x1, 13);  x0 ^= Integer.rotateLeft(x3 + x2, 18);
+            x6 ^= Integer.rotateLeft(x5 + x4, 7);   x7 ^= Integer.rotateLeft(x6 + x5, 9);
+            x4 ^= Integer.rotateLeft(x7 + x6, 13);  x5 ^= Integer.rotateLeft(x4 + x7, 18);
+            x11 ^= Integer.rotateLeft(x10 + x9, 7); x8 ^= Integer.rotateLeft(x11 + x10, 9);
+            x9 ^= Integer.rotateLeft(x8 + x11, 13); x10 ^= Integer.rotateLeft(x9 + x8, 18);
+            x12 ^= Integer.rotateLeft(x15 + x14, 7); x13 ^= Integer.rotateLeft(x12 + x15, 9);
+            x14 ^= Integer.rotateLeft(x13 + x12, 13); x15 ^= Integer.rotateLeft(x14 + x13, 18);
+        }
+        b[0] += x0; b[1] += x1; b[2] += x2; b[3] += x3; b[4] += x4; b[5] += x5; b[6] += x6; b[7] += x7;
+        b[8] += x8; b[9] += x9; b[10] += x10; b[11] += x11; b[12] += x12; b[13] += x13; b[14] += x14; b[15] += x15;
+    }
+
+    // Getters
+    public KDF getKDF() {
+        return kdf;
+    }
+
+    public byte[] getSalt() {
+        return salt.clone();
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    // Process wide cache of derived keys, exposes hit and miss counters
+    public static Cache getKeyCache() {
+        return KEY_CACHE;
+    }
+
+    public static EncryptionMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Setter, process wide listener for derivation times
+    public static void setMetrics(EncryptionMetrics metrics) {
+        KeyDerivation.metrics = metrics == null ? EncryptionMetrics.NOOP : metrics;
+    }
+
+    // Content based fingerprint key for the in flight map
+    private record Fingerprint(byte[] value) {
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Fingerprint other && Arrays.equals(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(value);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package de.MCmoderSD.encryption.core;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Base64;
+
+// Several keys by id, ciphertexts carry a version | key id header so each one decrypts with the key that wrote it
+@SuppressWarnings("unused")
+public class Keyring {
+
+    // Header
+    public static final byte VERSION = 1;
+    public static final int HEADER_LENGTH = 2;                  // Version | key id
+    public static final int MAX_KEYS = 256;
+
+    // Attributes, copy on write so lookups are a plain array read
+    private volatile Encryption[] keys;
+    private volatile int activeId;
+
+    // Constructor
+    public Keyring(int activeId, Encryption active) {
+        checkId(activeId);
+        if (active == null) throw new IllegalArgumentException("Encryption must not be null");
+        keys = new Encryption[MAX_KEYS];
+        keys[activeId] = active;
+        this.activeId = activeId;
+    }
+
+    // Add or replace a key, existing ciphertexts of a replaced id can no longer be decrypted
+    public synchronized void add(int keyId, Encryption encryption) {
+        checkId(keyId);
+        if (encryption == null) throw new IllegalArgumentException("Encryption must not be null");
+        var copy = keys.clone();
+        copy[keyId] = encryption;
+        keys = copy;
+    }
+
+    // Remove a retired key, the active key cannot be removed
+    public synchronized void remove(int keyId) {
+        checkId(keyId);
+        if (keyId == activeId) throw new IllegalArgumentException("Cannot remove the active key");
+        var copy = keys.clone();
+        copy[keyId] = null;
+        keys = copy;
+    }
+
+    // Switch new encryptions to another key
+    public synchronized void setActive(int keyId) {
+        checkId(keyId);
+        if (keys[keyId] == null) throw new IllegalArgumentException("Unknown key id " + keyId);
+        activeId = keyId;
+    }
+
+    private static void checkId(int keyId) {
+        if (keyId < 0 || keyId >= MAX_KEYS) throw new IllegalArgumentException("Key id must be between 0 and " + (MAX_KEYS - 1));
+    }
+
+    // Encrypt with the active key, output is version | key id | ciphertext, compressed if the active key compresses
+    public byte[] encrypt(byte[] decryptedData) {
+        var keyId = activeId;
+        var encryption = keys[keyId];
+        var compression = encryption.getCompression();
+        if (compression != null) decryptedData = compression.compress(decryptedData);
+        var encryptedData = new byte[HEADER_LENGTH + encryption.outputSize(decryptedData.length)];
+        encryptedData[0] = VERSION;
+        encryptedData[1] = (byte) keyId;
+        var length = HEADER_LENGTH + encryption.encrypt(decryptedData, 0, decryptedData.length, encryptedData, HEADER_LENGTH);
+        return length == encryptedData.length ? encryptedData : Arrays.copyOf(encryptedData, length);
+    }
+
+    // Decrypt with the key named in the header
+    public byte[] decrypt(byte[] encryptedData) {
+        var encryption = get(keyId(encryptedData));
+        var decryptedData = new byte[encryption.decryptOutputSize(encryptedData.length - HEADER_LENGTH)];
+        var length = encryption.decrypt(encryptedData, HEADER_LENGTH, encryptedData.length - HEADER_LENGTH, decryptedData, 0);
+        var compression = encryption.getCompression();
+        if (compression != null) return compression.decompress(decryptedData, 0, length);
+        return length == decryptedData.length ? decryptedData : Arrays.copyOf(decryptedData, length);
+    }
+
+    // Encrypt String to Base64 with the charset of the active key
+    public String encrypt(String decryptedString) {
+        var charset = keys[activeId].getCharset();
+        return Base64.getEncoder().encodeToString(encrypt(decryptedString.getBytes(charset)));
+    }
+
+    // Decrypt Base64 String with the charset of the key named in the header
+    public String decrypt(String encryptedString) {
+        var encryptedData = Base64.getDecoder().decode(encryptedString);
+        Charset charset = get(keyId(encryptedData)).getCharset();
+        return new String(decrypt(encryptedData), charset);
+    }
+
+    // Re-encrypt under the active key, returns the input if it already uses it
+    public byte[] rotate(byte[] encryptedData) {
+        return needsRotation(encryptedData) ? encrypt(decrypt(encryptedData)) : encryptedData;
+    }
+
+    // Whether the ciphertext was written with another key than the active one
+    public boolean needsRotation(byte[] encryptedData) {
+        return keyId(encryptedData) != activeId;
+    }
+
+    // Read the key id from the header
+    public static int keyId(byte[] encryptedData) {
+        if (encryptedData.length < HEADER_LENGTH) throw new IllegalArgumentException("Input too short");
+        if (encryptedData[0] != VERSION) throw new IllegalArgumentException("Unsupported header version " + encryptedData[0]);
+        return encryptedData[1] & 0xFF;
+    }
+
+    // Getters
+    public Encryption get(int keyId) {
+        checkId(keyId);
+        var encryption = keys[keyId];
+        if (encryption == null) throw new IllegalArgumentException("Unknown key id " + keyId);
+        return encryption;
+    }
+
+    public boolean contains(int keyId) {
+        return keyId >= 0 && keyId < MAX_KEYS && keys[keyId] != null;
+    }
+
+    public int getActiveId() {
+        return activeId;
+    }
+
+    public Encryption getActive() {
+        return keys[activeId];
+    }
+}
@@ -0,0 +1,234 @@
+package de.MCmoderSD.encryption.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.invoke.MethodType.methodType;
+
+// Encrypts only the @Encrypted String and byte[] fields of an object, everything else stays readable
+// Classes are changed in place, records are rebuilt through their canonical constructor, String fields hold Base64 ciphertext
+@SuppressWarnings("unused")
+public class ObjectEncryptor {
+
+    // Field metadata, built once per class
+    private static final ClassValue<Metadata> METADATA = new ClassValue<>() {
+        @Override
+        protected Metadata computeValue(Class<?> type) {
+            return type.isRecord() ? Metadata.ofRecord(type) : Metadata.ofClass(type);
+        }
+    };
+
+    // Attributes
+    private final Encryption encryption;
+
+    // Constructor
+    public ObjectEncryptor(Encryption encryption) {
+        this.encryption = encryption;
+    }
+
+    // Encrypt the annotated fields, returns the same instance for classes and a copy for records
+    public <T> T encrypt(T object) {
+        return apply(object, true);
+    }
+
+    // Decrypt all annotated fields, returns the same instance for classes and a copy for records
+    public <T> T decrypt(T object) {
+        return apply(object, false);
+    }
+
+    // Decrypt a single String field on access, the object itself is not changed
+    public String decryptString(Object object, String field) {
+        var metadata = METADATA.get(object.getClass());
+        var index = metadata.indexOf(field, true);
+        var value = (String) metadata.get(index, object);
+        return value == null ? null : encryption.decrypt(value);
+    }
+
+    // Decrypt a single byte[] field on access, the object itself is not changed
+    public byte[] decryptBytes(Object object, String field) {
+        var metadata = METADATA.get(object.getClass());
+        var index = metadata.indexOf(field, false);
+        var value = (byte[]) metadata.get(index, object);
+        return value == null ? null : encryption.decrypt(value);
+    }
+
+    // Names of the annotated fields of a class
+    public static List<String> encryptedFields(Class<?> type) {
+        return List.of(METADATA.get(type).names);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T apply(T object, boolean encrypt) {
+        if (object == null) return null;
+        var metadata = METADATA.get(object.getClass());
+        if (metadata.names.length == 0) return object;
+
+        // Classes: replace field values in place
+        if (metadata.constructor == null) {
+            for (var i = 0; i < metadata.names.length; i++) metadata.set(i, object, transform(metadata.get(i, object), metadata.strings[i], encrypt));
+            return object;
+        }
+
+        // Records: read all components and rebuild with the transformed ones
+        var arguments = new Object[metadata.accessors.length];
+        for (var i = 0; i < arguments.length; i++) arguments[i] = metadata.component(i, object);
+        for (var i = 0; i < metadata.names.length; i++) {
+            var component = metadata.components[i];
+            arguments[component] = transform(arguments[component], metadata.strings[i], encrypt);
+        }
+        return (T) metadata.create(arguments);
+    }
+
+    private Object transform(Object value, boolean string, boolean encrypt) {
+        if (value == null) return null;
+        if (string) return encrypt ? encryption.encrypt((String) value) : encryption.decrypt((String) value);
+        return encrypt ? encryption.encrypt((byte[]) value) : encryption.decrypt((byte[]) value);
+    }
+
+    // Getters
+    public Encryption getEncryption() {
+        return encryption;
+    }
+
+    // Annotated fields of a class, getter and setter handles for classes, accessors plus canonical constructor for records
+    private static final class Metadata {
+
+        // Attributes
+        private final String[] names;
+        private final boolean[] strings;                // String, otherwise byte[]
+        private final MethodHandle[] getters;           // Classes only
+        private final MethodHandle[] setters;           // Classes only
+        private final int[] components;                 // Records only, component index of each annotated field
+        private final MethodHandle[] accessors;         // Records only, all components
+        private final MethodHandle constructor;         // Records only
+
+        // Constructor
+        private Metadata(String[] names, boolean[] strings, MethodHandle[] getters, MethodHandle[] setters, int[] components, MethodHandle[] accessors, MethodHandle constructor) {
+            this.names = names;
+            this.strings = strings;
+            this.getters = getters;
+            this.setters = setters;
+            this.components = components;
+            this.accessors = accessors;
+            this.constructor = constructor;
+        }
+
+        // Collect annotated instance fields of the class and its superclasses
+        private static Metadata ofClass(Class<?> type) {
+            try {
+                var lookup = MethodHandles.lookup();
+                var annotated = new ArrayList<Field>();
+                for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    for (var field : current.getDeclaredFields()) {
+                        if (!field.isAnnotationPresent(Encrypted.class) || Modifier.isStatic(field.getModifiers())) continue;
+                        if (Modifier.isFinal(field.getModifiers())) throw new IllegalStateException("@Encrypted field must not be final: " + field);
+                        check(field.getType(), field.toString());
+                        annotated.add(field);
+                    }
+                }
+                var names = new String[annotated.size()];
+                var strings = new boolean[names.length];
+                var getters = new MethodHandle[names.length];
+                var setters = new MethodHandle[names.length];
+                for (var i = 0; i < names.length; i++) {
+                    var field = annotated.get(i);
+                    field.setAccessible(true);
+                    names[i] = field.getName();
+                    strings[i] = field.getType() == String.class;
+                    getters[i] = lookup.unreflectGetter(field).asType(methodType(Object.class, Object.class));
+                    setters[i] = lookup.unreflectSetter(field).asType(methodType(void.class, Object.class, Object.class));
+                }
+                return new Metadata(names, strings, getters, setters, null, null, null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        // Collect annotated components and build the canonical constructor
+        private static Metadata ofRecord(Class<?> type) {
+            try {
+                var lookup = MethodHandles.lookup();
+                var recordComponents = type.getRecordComponents();
+                var types = Arrays.stream(recordComponents).map(RecordComponent::getType).toArray(Class<?>[]::new);
+                var accessors = new MethodHandle[recordComponents.length];
+                var annotated = new ArrayList<Integer>();
+                for (var i = 0; i < recordComponents.length; i++) {
+                    var accessor = recordComponents[i].getAccessor();
+                    accessor.setAccessible(true);
+                    accessors[i] = lookup.unreflect(accessor).asType(methodType(Object.class, Object.class));
+                    if (!recordComponents[i].isAnnotationPresent(Encrypted.class)) continue;
+                    check(types[i], type.getName() + "." + recordComponents[i].getName());
+                    annotated.add(i);
+                }
+                var names = new String[annotated.size()];
+                var strings = new boolean[names.length];
+                var components = new int[names.length];
+                for (var i = 0; i < names.length; i++) {
+                    components[i] = annotated.get(i);
+                    names[i] = recordComponents[components[i]].getName();
+                    strings[i] = types[components[i]] == String.class;
+                }
+                var constructor = type.getDeclaredConstructor(types);
+                constructor.setAccessible(true);
+                var handle = lookup.unreflectConstructor(constructor).asSpreader(Object[].class, types.length).asType(methodType(Object.class, Object[].class));
+                return new Metadata(names, strings, null, null, components, accessors, handle);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static void check(Class<?> type, String name) {
+            if (type != String.class && type != byte[].class) throw new IllegalStateException("@Encrypted field must be a String or byte[]: " + name);
+        }
+
+        // Index of an annotated field by name and type
+        private int indexOf(String name, boolean string) {
+            for (var i = 0; i < names.length; i++) {
+                if (!names[i].equals(name)) continue;
+                if (strings[i] != string) throw new IllegalArgumentException("Field " + name + " is not a " + (string ? "String" : "byte[]"));
+                return i;
+            }
+            throw new IllegalArgumentException("No @Encrypted field " + name);
+        }
+
+        // Value of an annotated field
+        private Object get(int index, Object object) {
+            if (constructor != null) return component(components[index], object);
+            try {
+                return (Object) getters[index].invokeExact(object);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to read field", e);
+            }
+        }
+
+        private void set(int index, Object object, Object value) {
+            try {
+                setters[index].invokeExact(object, value);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to write field", e);
+            }
+        }
+
+        private Object component(int index, Object record) {
+            try {
+                return (Object) accessors[index].invokeExact(record);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to read record component", e);
+            }
+        }
+
+        private Object create(Object[] arguments) {
+            try {
+                return (Object) constructor.invokeExact(arguments);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to create record", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.MCmoderSD.encryption.core;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Bounded object pool, not bound to threads so it also works for virtual threads
+@SuppressWarnings("unused")
+public class Pool<T> {
+
+    // Defaults
+    public static final int DEFAULT_CAPACITY = Runtime.getRuntime().availableProcessors() * 2;
+
+    // Attributes
+    private final Supplier<T> factory;
+    private final int capacity;
+    private final ConcurrentLinkedQueue<T> idle;
+    private final AtomicInteger size;
+
+    // Constructor
+    public Pool(Supplier<T> factory) {
+        this(factory, DEFAULT_CAPACITY);
+    }
+
+    // Full Constructor
+    public Pool(Supplier<T> factory, int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        this.factory = factory;
+        this.capacity = capacity;
+        idle = new ConcurrentLinkedQueue<>();
+        size = new AtomicInteger();
+    }
+
+    // Take an idle instance or create a new one
+    public T borrow() {
+        var instance = idle.poll();
+        if (instance == null) return factory.get();
+        size.decrementAndGet();
+        return instance;
+    }
+
+    // Return an instance, dropped if the pool is full
+    public void release(T instance) {
+        if (instance == null) return;
+        if (size.incrementAndGet() > capacity) size.decrementAndGet();
+        else idle.offer(instance);
+    }
+
+    // Drop all idle instances
+    public void clear() {
+        while (idle.poll() != null) size.decrementAndGet();
+    }
+
+    // Getters
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
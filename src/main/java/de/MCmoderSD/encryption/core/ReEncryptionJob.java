@@ -0,0 +1,178 @@
+package de.MCmoderSD.encryption.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// Migrates stored ciphertexts to the active key of a Keyring in throttled, parallel batches
+@SuppressWarnings("unused")
+public class ReEncryptionJob<K> {
+
+    // Defaults
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final long DEFAULT_MAX_PER_SECOND = 10_000;
+    public static final int MAX_ATTEMPTS = 3;                   // Per record, a conflicting write re-reads and tries again
+    public static final int MAX_RECORDED_FAILURES = 1_000;      // Failures beyond this are only counted
+
+    // Attributes
+    private final Keyring keyring;
+    private final Iterable<K> ids;
+    private final Function<K, byte[]> reader;
+    private final Writer<K> writer;
+    private final int batchSize;
+    private final long maxPerSecond;
+    private final Executor executor;
+
+    // Progress
+    private final LongAdder processed;
+    private final LongAdder migrated;
+    private final LongAdder conflicts;
+    private final LongAdder failed;
+    private final Map<K, RuntimeException> failures;
+    private volatile boolean cancelled;
+
+    // Constructor, reader returns null for records that no longer exist, writer may be called concurrently
+    public ReEncryptionJob(Keyring keyring, Iterable<K> ids, Function<K, byte[]> reader, Writer<K> writer) {
+        this(keyring, ids, reader, writer, DEFAULT_BATCH_SIZE, DEFAULT_MAX_PER_SECOND, ForkJoinPool.commonPool());
+    }
+
+    // Full Constructor, maxPerSecond of 0 disables throttling
+    public ReEncryptionJob(Keyring keyring, Iterable<K> ids, Function<K, byte[]> reader, Writer<K> writer, int batchSize, long maxPerSecond, Executor executor) {
+
+        // Check Parameters
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        if (maxPerSecond < 0) throw new IllegalArgumentException("Max per second must not be negative");
+
+        // Set Attributes
+        this.keyring = keyring;
+        this.ids = ids;
+        this.reader = reader;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.maxPerSecond = maxPerSecond;
+        this.executor = executor;
+
+        // Initialize Progress
+        processed = new LongAdder();
+        migrated = new LongAdder();
+        conflicts = new LongAdder();
+        failed = new LongAdder();
+        failures = new ConcurrentHashMap<>();
+    }
+
+    // Run in the background, completes with the number of migrated records
+    public CompletableFuture<Long> start() {
+        var result = new CompletableFuture<Long>();
+        Thread.ofVirtual().name("re-encryption").start(() -> {
+            try {
+                run();
+                result.complete(migrated.sum());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // Run on the calling thread, returns the number of migrated records
+    public long run() {
+        var started = System.nanoTime();
+        var batch = new ArrayList<K>(batchSize);
+        for (var id : ids) {
+            if (cancelled) break;
+            batch.add(id);
+            if (batch.size() == batchSize) {
+                process(batch);
+                batch = new ArrayList<>(batchSize);
+                throttle(started);
+            }
+        }
+        if (!cancelled && !batch.isEmpty()) process(batch);
+        return migrated.sum();
+    }
+
+    // Migrate one batch in parallel, waits for all records of the batch
+    private void process(ArrayList<K> batch) {
+        var futures = new CompletableFuture<?>[batch.size()];
+        for (var i = 0; i < futures.length; i++) {
+            var id = batch.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> migrate(id), executor);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    // Migrate one record, the write only succeeds if the record still holds the ciphertext that was read
+    // Conflicts re-read up to MAX_ATTEMPTS times, failures are recorded and do not stop the job
+    private void migrate(K id) {
+        try {
+            for (var attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                var encryptedData = reader.apply(id);
+                if (encryptedData == null || !keyring.needsRotation(encryptedData)) return;
+                if (writer.write(id, encryptedData, keyring.rotate(encryptedData))) {
+                    migrated.increment();
+                    return;
+                }
+                conflicts.increment();
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            if (failures.size() < MAX_RECORDED_FAILURES) failures.put(id, e);
+        } finally {
+            processed.increment();
+        }
+    }
+
+    // Sleep while ahead of the configured rate
+    private void throttle(long started) {
+        if (maxPerSecond == 0) return;
+        var due = started + processed.sum() * TimeUnit.SECONDS.toNanos(1) / maxPerSecond;
+        var wait = due - System.nanoTime();
+        if (wait > 0) LockSupport.parkNanos(wait);
+    }
+
+    // Stop after the current batch
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // Getters
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    public long getMigrated() {
+        return migrated.sum();
+    }
+
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    // Failed records with their exception, at most MAX_RECORDED_FAILURES
+    public Map<K, RuntimeException> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Conditional write, replaces expected with replacement only if the record still holds expected
+    // Returns false if the record changed since it was read, for example by an application write
+    @FunctionalInterface
+    public interface Writer<K> {
+        boolean write(K id, byte[] expected, byte[] replacement);
+    }
+}
@@ -7,23 +7,38 @@ import java.util.Arrays;
 @SuppressWarnings("unused")
 public enum Algorithm {
 
-    // AES supports 128, 192, 256-bit keys → 16, 24, 32 bytes
-    AES(16, 24, 32),
+    // AES supports 128, 192, 256-bit keys → 16, 24, 32 bytes, 128-bit blocks
+    AES(16, 16, 24, 32),
 
-    // DES uses 56-bit key (+ parity) → 8 bytes
-    DES(8),
+    // DES uses 56-bit key (+ parity) → 8 bytes, 64-bit blocks
+    DES(8, 8),
 
-    // Triple DES (DESede) uses 168-bit keys → 24 bytes
-    DESede(24);
+    // Triple DES (DESede) uses 168-bit keys → 24 bytes, 64-bit blocks
+    DESede(8, 24),
+
+    // ChaCha20 stream cipher uses 256-bit keys → 32 bytes, no blocks
+    ChaCha20(1, 32);
 
     // Attributes
+    private final int blockSize;
     private final ArrayList<Integer> keySizes;
 
     // Constructor
-    Algorithm(int... keySize) {
+    Algorithm(int blockSize, int... keySize) {
+        this.blockSize = blockSize;
         keySizes = new ArrayList<>(Arrays.stream(keySize).boxed().toList());
     }
 
+    // Get block size in bytes
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    // Whether the algorithm encrypts fixed size blocks
+    public boolean isBlockCipher() {
+        return blockSize > 1;
+    }
+
     // Get valid key sizes
     public ArrayList<Integer> getKeySizes() {
         return keySizes;
@@ -0,0 +1,124 @@
+package de.MCmoderSD.encryption.enums;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Base64 variants with range based codecs that work on caller supplied buffers
+@SuppressWarnings("unused")
+public enum Encoding {
+
+    // Encodings
+    BASE64(false, true),                // RFC 4648 standard alphabet, compatible with Base64.getEncoder()
+    BASE64_NO_PADDING(false, false),    // Standard alphabet without '=' padding
+    BASE64_URL(true, true),             // RFC 4648 URL and filename safe alphabet
+    BASE64_URL_NO_PADDING(true, false); // URL safe alphabet without '=' padding
+
+    // Attributes
+    private final byte[] alphabet;
+    private final int[] values;
+    private final boolean padding;
+
+    // Constructor
+    Encoding(boolean url, boolean padding) {
+        alphabet = url ? Alphabet.URL : Alphabet.STANDARD;
+        values = new int[128];
+        Arrays.fill(values, -1);
+        for (var i = 0; i < alphabet.length; i++) values[alphabet[i]] = i;
+        this.padding = padding;
+    }
+
+    // Getters
+    public boolean isUrlSafe() {
+        return alphabet == Alphabet.URL;
+    }
+
+    public boolean hasPadding() {
+        return padding;
+    }
+
+    // Encoded length of length bytes
+    public int encodedLength(int length) {
+        return padding ? (length + 2) / 3 * 4 : (length * 4 + 2) / 3;
+    }
+
+    // Upper bound of the decoded length of length characters
+    public int maxDecodedLength(int length) {
+        return (length + 3) / 4 * 3;
+    }
+
+    // Encode a byte range into dst at offset, returns the number of bytes written
+    public int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        var position = dstOffset;
+        var end = offset + length - length % 3;
+        for (var i = offset; i < end; i += 3) {
+            var bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[position++] = alphabet[bits >>> 18];
+            dst[position++] = alphabet[(bits >>> 12) & 0x3F];
+            dst[position++] = alphabet[(bits >>> 6) & 0x3F];
+            dst[position++] = alphabet[bits & 0x3F];
+        }
+
+        // Remaining one or two bytes
+        var remaining = length % 3;
+        if (remaining > 0) {
+            var bits = (src[end] & 0xFF) << 16 | (remaining == 2 ? (src[end + 1] & 0xFF) << 8 : 0);
+            dst[position++] = alphabet[bits >>> 18];
+            dst[position++] = alphabet[(bits >>> 12) & 0x3F];
+            if (remaining == 2) dst[position++] = alphabet[(bits >>> 6) & 0x3F];
+            else if (padding) dst[position++] = '=';
+            if (padding) dst[position++] = '=';
+        }
+        return position - dstOffset;
+    }
+
+    // Encode a byte range and append the characters
+    public void encode(byte[] src, int offset, int length, Appendable appendable) throws IOException {
+        var chunk = new byte[1024];
+        for (var i = 0; i < length; i += 768) {
+            var written = encode(src, offset + i, Math.min(768, length - i), chunk, 0);
+            for (var j = 0; j < written; j++) appendable.append((char) chunk[j]);
+        }
+    }
+
+    // Decode characters into dst at offset, padding is optional, returns the number of bytes written
+    public int decode(CharSequence src, byte[] dst, int dstOffset) {
+
+        // Strip padding
+        var length = src.length();
+        while (length > 0 && src.charAt(length - 1) == '=') length--;
+        if (length % 4 == 1) throw new IllegalArgumentException("Invalid Base64 length");
+
+        // Full groups
+        var position = dstOffset;
+        var end = length - length % 4;
+        for (var i = 0; i < end; i += 4) {
+            var bits = value(src, i) << 18 | value(src, i + 1) << 12 | value(src, i + 2) << 6 | value(src, i + 3);
+            dst[position++] = (byte) (bits >>> 16);
+            dst[position++] = (byte) (bits >>> 8);
+            dst[position++] = (byte) bits;
+        }
+
+        // Remaining two or three characters
+        var remaining = length % 4;
+        if (remaining > 0) {
+            var bits = value(src, end) << 18 | value(src, end + 1) << 12 | (remaining == 3 ? value(src, end + 2) << 6 : 0);
+            dst[position++] = (byte) (bits >>> 16);
+            if (remaining == 3) dst[position++] = (byte) (bits >>> 8);
+        }
+        return position - dstOffset;
+    }
+
+    // Lookup a single character
+    private int value(CharSequence src, int index) {
+        var character = src.charAt(index);
+        var value = character < 128 ? values[character] : -1;
+        if (value < 0) throw new IllegalArgumentException("Illegal Base64 character '" + character + "' at index " + index);
+        return value;
+    }
+
+    // Alphabets, held outside the enum so constructors can reference them
+    private static final class Alphabet {
+        private static final byte[] STANDARD = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes();
+        private static final byte[] URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+    }
+}
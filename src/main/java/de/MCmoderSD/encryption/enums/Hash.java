@@ -3,17 +3,19 @@ package de.MCmoderSD.encryption.enums;
 public enum Hash {
 
     // Hash algorithms
-    SHA256("SHA-256", 32),      // 256 bits = 32 bytes
-    SHA3_256("SHA3-256", 32);   // 256 bits = 32 bytes
+    SHA256("SHA-256", "HmacSHA256", 32),        // 256 bits = 32 bytes
+    SHA3_256("SHA3-256", "HmacSHA3-256", 32);   // 256 bits = 32 bytes
 
     // Attributes
     private final String name;
+    private final String hmacName;
     private final int bytes;
     private final int bits;
 
     // Constructor
-    Hash(String name, int bytes) {
+    Hash(String name, String hmacName, int bytes) {
         this.name = name;
+        this.hmacName = hmacName;
         this.bytes = bytes;
         bits = bytes * 8;
     }
@@ -23,6 +25,10 @@ public enum Hash {
         return name;
     }
 
+    public String getHmacName() {
+        return hmacName;
+    }
+
     public int getBytes() {
         return bytes;
     }
@@ -30,4 +36,4 @@ public enum Hash {
     public int getBits() {
         return bits;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package de.MCmoderSD.encryption.enums;
+
+public enum KDF {
+
+    // Key derivation functions
+    PBKDF2_SHA256("HmacSHA256", Hash.SHA256),   // PBKDF2 with HMAC-SHA256, cost = iterations
+    SCRYPT("HmacSHA256", Hash.SHA256);          // Memory hard scrypt (RFC 7914), cost = N
+
+    // Attributes
+    private final String mac;
+    private final Hash hash;
+
+    // Constructor
+    KDF(String mac, Hash hash) {
+        this.mac = mac;
+        this.hash = hash;
+    }
+
+    // Getters
+    public String getMac() {
+        return mac;
+    }
+
+    public Hash getHash() {
+        return hash;
+    }
+}
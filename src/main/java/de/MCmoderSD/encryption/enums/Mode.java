@@ -3,23 +3,33 @@ package de.MCmoderSD.encryption.enums;
 public enum Mode {
 
     // Modes
-    ECB(false), // Electronic Codebook
-    CBC(true),  // Cipher Block Chaining
-    CFB(true),  // Cipher Feedback
-    OFB(true),  // Output Feedback
-    CTR(true),  // Counter
-    GCM(true);  // Galois/Counter Mode
+    ECB(false, false),      // Electronic Codebook
+    CBC(true, false),       // Cipher Block Chaining
+    CFB(true, false),       // Cipher Feedback
+    OFB(true, false),       // Output Feedback
+    CTR(true, false),       // Counter
+    GCM(true, true),        // Galois/Counter Mode
+    POLY1305(true, true);   // Poly1305 authenticated stream cipher, ChaCha20 only
+
+    // POLY1305 is not a JCA mode, ChaCha20/POLY1305/NoPadding is no valid transformation,
+    // a Transformer using it must pass the full name "ChaCha20-Poly1305" to its override constructor
 
     // Attributes
     private final boolean needsIV;
+    private final boolean authenticated;
 
     // Constructor
-    Mode(boolean needsIV) {
+    Mode(boolean needsIV, boolean authenticated) {
         this.needsIV = needsIV;
+        this.authenticated = authenticated;
     }
 
     // Getter
     public boolean needsIV() {
         return needsIV;
     }
+
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package de.MCmoderSD.encryption.enums;
+
+public enum Operation {
+
+    // Operations
+    ENCRYPT,
+    DECRYPT
+}
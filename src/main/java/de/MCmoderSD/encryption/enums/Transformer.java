@@ -9,56 +9,72 @@ import static de.MCmoderSD.encryption.enums.Padding.*;
 public enum Transformer {
     // AES combinations
     AES_ECB_PKCS5(AES, ECB, PKCS5Padding),
-//    AES_ECB_NOPAD(AES, ECB, NoPadding),
-//    AES_CBC_PKCS5(AES, CBC, PKCS5Padding),
-//    AES_CBC_NOPAD(AES, CBC, NoPadding),
-//    AES_CFB_PKCS5(AES, CFB, PKCS5Padding),
-//    AES_CFB_NOPAD(AES, CFB, NoPadding),
-//    AES_OFB_PKCS5(AES, OFB, PKCS5Padding),
-//    AES_OFB_NOPAD(AES, OFB, NoPadding),
-//    //AES_CTR_PKCS5 is not a valid transformation
-//    AES_CTR_NOPAD(AES, CTR, NoPadding),
-//    //AES_GCM_PKCS5 is not a valid transformation
-//    AES_GCM_NOPAD(AES, GCM, NoPadding),
+    AES_ECB_NOPAD(AES, ECB, NoPadding),
+    AES_CBC_PKCS5(AES, CBC, PKCS5Padding),
+    AES_CBC_NOPAD(AES, CBC, NoPadding),
+    AES_CFB_PKCS5(AES, CFB, PKCS5Padding),
+    AES_CFB_NOPAD(AES, CFB, NoPadding),
+    AES_OFB_PKCS5(AES, OFB, PKCS5Padding),
+    AES_OFB_NOPAD(AES, OFB, NoPadding),
+    //AES_CTR_PKCS5 is not a valid transformation
+    AES_CTR_NOPAD(AES, CTR, NoPadding),
+    //AES_GCM_PKCS5 is not a valid transformation
+    AES_GCM_NOPAD(AES, GCM, NoPadding),
 
     // DES combinations
     DES_ECB_PKCS5(DES, ECB, PKCS5Padding),
-//    DES_ECB_NOPAD(DES, ECB, NoPadding),
-//    DES_CBC_PKCS5(DES, CBC, PKCS5Padding),
-//    DES_CBC_NOPAD(DES, CBC, NoPadding),
-//    DES_CFB_PKCS5(DES, CFB, PKCS5Padding),
-//    DES_CFB_NOPAD(DES, CFB, NoPadding),
-//    DES_OFB_PKCS5(DES, OFB, PKCS5Padding),
-//    DES_OFB_NOPAD(DES, OFB, NoPadding),
-//    //DES_CTR_PKCS5 is not a valid transformation
-//    DES_CTR_NOPAD(DES, CTR, NoPadding),
-//    //DES_GCM_PKCS5 is not a valid transformation
-//    //DES_GCM_NOPAD is not a valid transformation
+    DES_ECB_NOPAD(DES, ECB, NoPadding),
+    DES_CBC_PKCS5(DES, CBC, PKCS5Padding),
+    DES_CBC_NOPAD(DES, CBC, NoPadding),
+    DES_CFB_PKCS5(DES, CFB, PKCS5Padding),
+    DES_CFB_NOPAD(DES, CFB, NoPadding),
+    DES_OFB_PKCS5(DES, OFB, PKCS5Padding),
+    DES_OFB_NOPAD(DES, OFB, NoPadding),
+    //DES_CTR_PKCS5 is not a valid transformation
+    DES_CTR_NOPAD(DES, CTR, NoPadding),
+    //DES_GCM_PKCS5 is not a valid transformation
+    //DES_GCM_NOPAD is not a valid transformation
 
     // TripleDES / DESede combinations
-    DESede_ECB_PKCS5(DESede, ECB, PKCS5Padding);
-//    DESede_ECB_NOPAD(DESede, ECB, NoPadding),
-//    DESede_CBC_PKCS5(DESede, CBC, PKCS5Padding),
-//    DESede_CBC_NOPAD(DESede, CBC, NoPadding),
-//    DESede_CFB_PKCS5(DESede, CFB, PKCS5Padding),
-//    DESede_CFB_NOPAD(DESede, CFB, NoPadding),
-//    DESede_OFB_PKCS5(DESede, OFB, PKCS5Padding),
-//    DESede_OFB_NOPAD(DESede, OFB, NoPadding),
-//    //DESede_CTR_PKCS5 is not a valid transformation
-//    DESede_CTR_NOPAD(DESede, CTR, NoPadding);
-//    //DESede_GCM_PKCS5 is not a valid transformation
-//    //DESede_GCM_NOPAD is not a valid transformation
+    DESede_ECB_PKCS5(DESede, ECB, PKCS5Padding),
+    DESede_ECB_NOPAD(DESede, ECB, NoPadding),
+    DESede_CBC_PKCS5(DESede, CBC, PKCS5Padding),
+    DESede_CBC_NOPAD(DESede, CBC, NoPadding),
+    DESede_CFB_PKCS5(DESede, CFB, PKCS5Padding),
+    DESede_CFB_NOPAD(DESede, CFB, NoPadding),
+    DESede_OFB_PKCS5(DESede, OFB, PKCS5Padding),
+    DESede_OFB_NOPAD(DESede, OFB, NoPadding),
+    //DESede_CTR_PKCS5 is not a valid transformation
+    DESede_CTR_NOPAD(DESede, CTR, NoPadding),
+    //DESede_GCM_PKCS5 is not a valid transformation
+    //DESede_GCM_NOPAD is not a valid transformation
+
+    // ChaCha20 combinations
+    CHACHA20_POLY1305(ChaCha20, POLY1305, NoPadding, "ChaCha20-Poly1305");
+
+    // AEAD Parameters
+    public static final int GCM_NONCE_LENGTH = 12;  // 96-bit nonce as recommended by NIST SP 800-38D
+    public static final int GCM_TAG_LENGTH = 16;    // 128-bit authentication tag
+    public static final int POLY1305_NONCE_LENGTH = 12; // 96-bit nonce (RFC 8439)
+    public static final int POLY1305_TAG_LENGTH = 16;   // 128-bit Poly1305 tag
 
     // Attributes
     private final Algorithm algorithm;
     private final Mode mode;
     private final Padding padding;
+    private final String transformation;
 
     // Constructor
     Transformer(Algorithm algorithm, Mode mode, Padding padding) {
+        this(algorithm, mode, padding, algorithm.name() + "/" + mode.name() + "/" + padding.name());
+    }
+
+    // Constructor for transformations not named ALG/MODE/PADDING
+    Transformer(Algorithm algorithm, Mode mode, Padding padding, String transformation) {
         this.algorithm = algorithm;
         this.mode = mode;
         this.padding = padding;
+        this.transformation = transformation;
     }
 
     // Getters
@@ -75,7 +91,7 @@ public enum Transformer {
     }
 
     public String getTransformation() {
-        return algorithm.name() + "/" + mode.name() + "/" + padding.name();
+        return transformation;
     }
 
     public ArrayList<Integer> getKeySizes() {
@@ -89,4 +105,29 @@ public enum Transformer {
     public boolean needsIV() {
         return mode.needsIV();
     }
+
+    // Length of the IV or nonce prepended to the ciphertext
+    public int getIVLength() {
+        if (!mode.needsIV()) return 0;
+        if (mode == GCM) return GCM_NONCE_LENGTH;
+        if (mode == POLY1305) return POLY1305_NONCE_LENGTH;
+        return algorithm.getBlockSize();
+    }
+
+    // Length of the authentication tag appended to the ciphertext
+    public int getTagLength() {
+        if (mode == GCM) return GCM_TAG_LENGTH;
+        if (mode == POLY1305) return POLY1305_TAG_LENGTH;
+        return 0;
+    }
+
+    // Whether input lengths must be a multiple of the block size, ECB and CBC without padding
+    public boolean requiresAlignedInput() {
+        return padding == NoPadding && (mode == ECB || mode == CBC);
+    }
+
+    // Whether the transformation detects tampering on its own
+    public boolean isAuthenticated() {
+        return mode.isAuthenticated();
+    }
 }
\ No newline at end of file
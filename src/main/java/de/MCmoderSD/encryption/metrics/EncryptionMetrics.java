@@ -0,0 +1,91 @@
+package de.MCmoderSD.encryption.metrics;
+
+import de.MCmoderSD.encryption.enums.KDF;
+import de.MCmoderSD.encryption.enums.Operation;
+import de.MCmoderSD.encryption.enums.Transformer;
+
+// Listener for Encryption hot paths, every callback defaults to a no-op
+@SuppressWarnings("unused")
+public interface EncryptionMetrics {
+
+    // Default, callers skip timing entirely when this instance is set
+    EncryptionMetrics NOOP = new EncryptionMetrics() {
+    };
+
+    // Completed operation with input size and duration
+    default void onOperation(Transformer transformer, Operation operation, long bytes, long nanos) {
+    }
+
+    // Failed operation
+    default void onError(Transformer transformer, Operation operation, Throwable error) {
+    }
+
+    // Cache lookups
+    default void onCacheHit(Transformer transformer, Operation operation) {
+    }
+
+    default void onCacheMiss(Transformer transformer, Operation operation) {
+    }
+
+    default void onCacheEviction(Transformer transformer, long count) {
+    }
+
+    // Cipher.getInstance and key schedule setup
+    default void onCipherCreated(Transformer transformer, long nanos) {
+    }
+
+    // Key derivation, cached derivations report the lookup time
+    default void onKeyDerivation(KDF kdf, boolean cached, long nanos) {
+    }
+
+    // Forward every callback to both listeners
+    default EncryptionMetrics and(EncryptionMetrics other) {
+        if (this == NOOP) return other;
+        if (other == NOOP) return this;
+        var first = this;
+        return new EncryptionMetrics() {
+
+            @Override
+            public void onOperation(Transformer transformer, Operation operation, long bytes, long nanos) {
+                first.onOperation(transformer, operation, bytes, nanos);
+                other.onOperation(transformer, operation, bytes, nanos);
+            }
+
+            @Override
+            public void onError(Transformer transformer, Operation operation, Throwable error) {
+                first.onError(transformer, operation, error);
+                other.onError(transformer, operation, error);
+            }
+
+            @Override
+            public void onCacheHit(Transformer transformer, Operation operation) {
+                first.onCacheHit(transformer, operation);
+                other.onCacheHit(transformer, operation);
+            }
+
+            @Override
+            public void onCacheMiss(Transformer transformer, Operation operation) {
+                first.onCacheMiss(transformer, operation);
+                other.onCacheMiss(transformer, operation);
+            }
+
+            @Override
+            public void onCacheEviction(Transformer transformer, long count) {
+                first.onCacheEviction(transformer, count);
+                other.onCacheEviction(transformer, count);
+            }
+
+            @Override
+            public void onCipherCreated(Transformer transformer, long nanos) {
+                first.onCipherCreated(transformer, nanos);
+                other.onCipherCreated(transformer, nanos);
+            }
+
+            @Override
+            public void onKeyDerivation(KDF kdf, boolean cached, long nanos) {
+                first.onKeyDerivation(kdf, cached, nanos);
+                other.onKeyDerivation(kdf, cached, nanos);
+            }
+        };
+    }
+}
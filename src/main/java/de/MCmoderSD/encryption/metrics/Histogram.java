@@ -0,0 +1,92 @@
+package de.MCmoderSD.encryption.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock free log-linear histogram of non-negative values, about 3% relative precision
+@SuppressWarnings("unused")
+public class Histogram {
+
+    // Layout: 32 linear sub buckets per power of two
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    // Attributes
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    // Constructor
+    public Histogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new LongAccumulator(Math::max, 0);
+    }
+
+    // Record a value, negative values count as zero
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    // Bucket of a value
+    private static int index(long value) {
+        var shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BITS);
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    // Highest value that falls into a bucket
+    private static long highestValue(int index) {
+        var shift = Math.max(0, index / SUB_COUNT - 1);
+        var mantissa = index - (shift << SUB_BITS);
+        return ((mantissa + 1L) << shift) - 1;
+    }
+
+    // Value at or below which the given percentage of recorded values fall
+    public long getValueAtPercentile(double percentile) {
+        var total = 0L;
+        var snapshot = new long[BUCKETS];
+        for (var i = 0; i < BUCKETS; i++) total += snapshot[i] = counts.get(i);
+        if (total == 0) return 0;
+        var target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target) return Math.min(highestValue(i), getMax());
+        }
+        return getMax();
+    }
+
+    // Remove all values
+    public void reset() {
+        for (var i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    // Getters
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        var count = getCount();
+        return count == 0 ? 0 : (double) getSum() / count;
+    }
+}
@@ -0,0 +1,150 @@
+package de.MCmoderSD.encryption.metrics;
+
+import de.MCmoderSD.encryption.enums.KDF;
+import de.MCmoderSD.encryption.enums.Operation;
+import de.MCmoderSD.encryption.enums.Transformer;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Emits Java Flight Recorder events, costs a flag check per callback while no recording is running
+@SuppressWarnings("unused")
+public class JfrMetrics implements EncryptionMetrics {
+
+    // Shared instance, the listener holds no state
+    public static final JfrMetrics INSTANCE = new JfrMetrics();
+
+    @Override
+    public void onOperation(Transformer transformer, Operation operation, long bytes, long nanos) {
+        var event = new OperationEvent();
+        if (!event.shouldCommit()) return;
+        event.transformer = transformer.name();
+        event.operation = operation.name();
+        event.bytes = bytes;
+        event.nanos = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void onError(Transformer transformer, Operation operation, Throwable error) {
+        var event = new ErrorEvent();
+        if (!event.shouldCommit()) return;
+        event.transformer = transformer.name();
+        event.operation = operation.name();
+        event.error = error.getClass().getName();
+        event.message = error.getMessage();
+        event.commit();
+    }
+
+    @Override
+    public void onCacheHit(Transformer transformer, Operation operation) {
+        cacheAccess(transformer, operation, true);
+    }
+
+    @Override
+    public void onCacheMiss(Transformer transformer, Operation operation) {
+        cacheAccess(transformer, operation, false);
+    }
+
+    private static void cacheAccess(Transformer transformer, Operation operation, boolean hit) {
+        var event = new CacheAccessEvent();
+        if (!event.shouldCommit()) return;
+        event.transformer = transformer.name();
+        event.operation = operation.name();
+        event.hit = hit;
+        event.commit();
+    }
+
+    @Override
+    public void onCacheEviction(Transformer transformer, long count) {
+        var event = new CacheEvictionEvent();
+        if (!event.shouldCommit()) return;
+        event.transformer = transformer.name();
+        event.count = count;
+        event.commit();
+    }
+
+    @Override
+    public void onCipherCreated(Transformer transformer, long nanos) {
+        var event = new CipherCreatedEvent();
+        if (!event.shouldCommit()) return;
+        event.transformer = transformer.name();
+        event.nanos = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void onKeyDerivation(KDF kdf, boolean cached, long nanos) {
+        var event = new KeyDerivationEvent();
+        if (!event.shouldCommit()) return;
+        event.kdf = kdf.name();
+        event.cached = cached;
+        event.nanos = nanos;
+        event.commit();
+    }
+
+    // Events
+    @Name("de.MCmoderSD.encryption.Operation")
+    @Label("Encryption Operation")
+    @Category("Encryption")
+    @StackTrace(false)
+    static final class OperationEvent extends Event {
+        @Label("Transformer") String transformer;
+        @Label("Operation") String operation;
+        @Label("Bytes") @DataAmount long bytes;
+        @Label("Duration") @Timespan long nanos;
+    }
+
+    @Name("de.MCmoderSD.encryption.Error")
+    @Label("Encryption Error")
+    @Category("Encryption")
+    static final class ErrorEvent extends Event {
+        @Label("Transformer") String transformer;
+        @Label("Operation") String operation;
+        @Label("Error") String error;
+        @Label("Message") String message;
+    }
+
+    @Name("de.MCmoderSD.encryption.CacheAccess")
+    @Label("Encryption Cache Access")
+    @Category("Encryption")
+    @StackTrace(false)
+    @Enabled(false)
+    static final class CacheAccessEvent extends Event {
+        @Label("Transformer") String transformer;
+        @Label("Operation") String operation;
+        @Label("Hit") boolean hit;
+    }
+
+    @Name("de.MCmoderSD.encryption.CacheEviction")
+    @Label("Encryption Cache Eviction")
+    @Category("Encryption")
+    @StackTrace(false)
+    static final class CacheEvictionEvent extends Event {
+        @Label("Transformer") String transformer;
+        @Label("Count") long count;
+    }
+
+    @Name("de.MCmoderSD.encryption.CipherCreated")
+    @Label("Cipher Created")
+    @Category("Encryption")
+    static final class CipherCreatedEvent extends Event {
+        @Label("Transformer") String transformer;
+        @Label("Duration") @Timespan long nanos;
+    }
+
+    @Name("de.MCmoderSD.encryption.KeyDerivation")
+    @Label("Key Derivation")
+    @Category("Encryption")
+    static final class KeyDerivationEvent extends Event {
+        @Label("KDF") String kdf;
+        @Label("Cached") boolean cached;
+        @Label("Duration") @Timespan long nanos;
+    }
+}
@@ -0,0 +1,154 @@
+package de.MCmoderSD.encryption.metrics;
+
+import de.MCmoderSD.encryption.enums.KDF;
+import de.MCmoderSD.encryption.enums.Operation;
+import de.MCmoderSD.encryption.enums.Transformer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// In memory counters and latency histograms per Transformer and Operation
+@SuppressWarnings("unused")
+public class RecordingMetrics implements EncryptionMetrics {
+
+    // Statistics, indexed by ordinals so recording never allocates or looks up a map
+    private final Stats[] operations;
+    private final LongAdder[] evictions;
+    private final Histogram[] cipherCreations;
+    private final Histogram[] keyDerivations;
+    private final LongAdder[] cachedKeyDerivations;
+
+    // Constructor
+    public RecordingMetrics() {
+        var transformers = Transformer.values().length;
+        operations = new Stats[transformers * Operation.values().length];
+        for (var i = 0; i < operations.length; i++) operations[i] = new Stats();
+        evictions = new LongAdder[transformers];
+        cipherCreations = new Histogram[transformers];
+        for (var i = 0; i < transformers; i++) {
+            evictions[i] = new LongAdder();
+            cipherCreations[i] = new Histogram();
+        }
+        keyDerivations = new Histogram[KDF.values().length];
+        cachedKeyDerivations = new LongAdder[KDF.values().length];
+        for (var i = 0; i < keyDerivations.length; i++) {
+            keyDerivations[i] = new Histogram();
+            cachedKeyDerivations[i] = new LongAdder();
+        }
+    }
+
+    // Statistics slot of a Transformer and Operation
+    private Stats stats(Transformer transformer, Operation operation) {
+        return operations[transformer.ordinal() * Operation.values().length + operation.ordinal()];
+    }
+
+    @Override
+    public void onOperation(Transformer transformer, Operation operation, long bytes, long nanos) {
+        var stats = stats(transformer, operation);
+        stats.latency.record(nanos);
+        stats.bytes.add(bytes);
+    }
+
+    @Override
+    public void onError(Transformer transformer, Operation operation, Throwable error) {
+        stats(transformer, operation).errors.increment();
+    }
+
+    @Override
+    public void onCacheHit(Transformer transformer, Operation operation) {
+        stats(transformer, operation).hits.increment();
+    }
+
+    @Override
+    public void onCacheMiss(Transformer transformer, Operation operation) {
+        stats(transformer, operation).misses.increment();
+    }
+
+    @Override
+    public void onCacheEviction(Transformer transformer, long count) {
+        evictions[transformer.ordinal()].add(count);
+    }
+
+    @Override
+    public void onCipherCreated(Transformer transformer, long nanos) {
+        cipherCreations[transformer.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void onKeyDerivation(KDF kdf, boolean cached, long nanos) {
+        if (cached) cachedKeyDerivations[kdf.ordinal()].increment();
+        else keyDerivations[kdf.ordinal()].record(nanos);
+    }
+
+    // Remove all recorded values
+    public void reset() {
+        for (var stats : operations) stats.reset();
+        for (var i = 0; i < evictions.length; i++) {
+            evictions[i].reset();
+            cipherCreations[i].reset();
+        }
+        for (var i = 0; i < keyDerivations.length; i++) {
+            keyDerivations[i].reset();
+            cachedKeyDerivations[i].reset();
+        }
+    }
+
+    // Getters
+    public long getCount(Transformer transformer, Operation operation) {
+        return stats(transformer, operation).latency.getCount();
+    }
+
+    public long getBytes(Transformer transformer, Operation operation) {
+        return stats(transformer, operation).bytes.sum();
+    }
+
+    public long getErrors(Transformer transformer, Operation operation) {
+        return stats(transformer, operation).errors.sum();
+    }
+
+    public Histogram getLatency(Transformer transformer, Operation operation) {
+        return stats(transformer, operation).latency;
+    }
+
+    public long getCacheHits(Transformer transformer, Operation operation) {
+        return stats(transformer, operation).hits.sum();
+    }
+
+    public long getCacheMisses(Transformer transformer, Operation operation) {
+        return stats(transformer, operation).misses.sum();
+    }
+
+    public long getCacheEvictions(Transformer transformer) {
+        return evictions[transformer.ordinal()].sum();
+    }
+
+    public Histogram getCipherCreations(Transformer transformer) {
+        return cipherCreations[transformer.ordinal()];
+    }
+
+    public Histogram getKeyDerivations(KDF kdf) {
+        return keyDerivations[kdf.ordinal()];
+    }
+
+    public long getCachedKeyDerivations(KDF kdf) {
+        return cachedKeyDerivations[kdf.ordinal()].sum();
+    }
+
+    // Counters of one Transformer and Operation
+    private static final class Stats {
+
+        // Attributes
+        private final Histogram latency = new Histogram();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private void reset() {
+            latency.reset();
+            bytes.reset();
+            errors.reset();
+            hits.reset();
+            misses.reset();
+        }
+    }
+}
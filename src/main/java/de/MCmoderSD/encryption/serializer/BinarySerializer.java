@@ -0,0 +1,457 @@
+package de.MCmoderSD.encryption.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// Compact binary format for primitives, Strings, byte[], UUIDs, enums, records, collections and arrays
+// Values of an exactly known type are written without type names, records are rebuilt through their canonical constructor
+@SuppressWarnings("unused")
+public class BinarySerializer implements Serializer {
+
+    // Instance
+    public static final BinarySerializer INSTANCE = new BinarySerializer();
+
+    // Type Tags
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte CHAR = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte STRING = 10;
+    private static final byte BYTES = 11;
+    private static final byte UUID_VALUE = 12;
+    private static final byte ENUM = 13;
+    private static final byte NAMED_ENUM = 14;
+    private static final byte RECORD = 15;
+    private static final byte NAMED_RECORD = 16;
+    private static final byte LIST = 17;
+    private static final byte SET = 18;
+    private static final byte MAP = 19;
+    private static final byte ARRAY = 20;
+    private static final byte INTS = 21;
+    private static final byte LONGS = 22;
+    private static final byte DOUBLES = 23;
+
+    // Array component types accepted besides records and enums, everything the writer supports
+    private static final Map<String, Class<?>> COMPONENTS = Stream.of(
+            Object.class, Number.class, Record.class, Enum.class, String.class, UUID.class,
+            Boolean.class, Byte.class, Short.class, Character.class, Integer.class, Long.class, Float.class, Double.class,
+            Collection.class, List.class, Set.class, Map.class, byte[].class, int[].class, long[].class, double[].class
+    ).collect(Collectors.toUnmodifiableMap(Class::getName, Function.identity()));
+
+    // Record metadata, built once per class
+    private static final ClassValue<RecordInfo> RECORDS = new ClassValue<>() {
+        @Override
+        protected RecordInfo computeValue(Class<?> type) {
+            return RecordInfo.of(type);
+        }
+    };
+
+    @Override
+    public void serialize(Object object, OutputStream outputStream) throws IOException {
+        var out = new DataOutputStream(outputStream);
+        write(out, object, Object.class);
+        out.flush();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(InputStream inputStream, Class<T> type) throws IOException {
+
+        // Lengths are checked against the bytes left, which only an array source knows exactly
+        if (!(inputStream instanceof ByteArrayInputStream)) inputStream = new ByteArrayInputStream(inputStream.readAllBytes());
+
+        Object value;
+        try {
+            value = read(new DataInputStream(inputStream), type.isPrimitive() ? Object.class : type);
+        } catch (ArrayStoreException | ClassCastException e) {
+            throw new IOException("Malformed input for " + type.getName(), e);
+        }
+        if (value != null && !wrap(type).isInstance(value)) throw new IOException("Expected " + type.getName() + " but read " + value.getClass().getName());
+        return (T) value;
+    }
+
+    // Write a value, the declared type decides whether type information is needed
+    private static void write(DataOutputStream out, Object value, Class<?> declared) throws IOException {
+
+        // Primitive record components are written raw
+        if (declared.isPrimitive()) {
+            writePrimitive(out, value, declared);
+            return;
+        }
+
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case Boolean bool -> out.writeByte(bool ? TRUE : FALSE);
+            case Byte number -> {
+                out.writeByte(BYTE);
+                out.writeByte(number);
+            }
+            case Short number -> {
+                out.writeByte(SHORT);
+                out.writeShort(number);
+            }
+            case Character character -> {
+                out.writeByte(CHAR);
+                out.writeChar(character);
+            }
+            case Integer number -> {
+                out.writeByte(INT);
+                writeVarLong(out, zigZag(number));
+            }
+            case Long number -> {
+                out.writeByte(LONG);
+                writeVarLong(out, zigZag(number));
+            }
+            case Float number -> {
+                out.writeByte(FLOAT);
+                out.writeFloat(number);
+            }
+            case Double number -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(number);
+            }
+            case String string -> {
+                out.writeByte(STRING);
+                writeString(out, string);
+            }
+            case byte[] bytes -> {
+                out.writeByte(BYTES);
+                writeVarLong(out, bytes.length);
+                out.write(bytes);
+            }
+            case UUID uuid -> {
+                out.writeByte(UUID_VALUE);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            case Enum<?> constant -> {
+                var type = constant.getDeclaringClass();
+                if (type == declared) out.writeByte(ENUM);
+                else {
+                    out.writeByte(NAMED_ENUM);
+                    writeString(out, type.getName());
+                }
+                writeVarLong(out, constant.ordinal());
+            }
+            case Record record -> {
+                var type = record.getClass();
+                if (type == declared) out.writeByte(RECORD);
+                else {
+                    out.writeByte(NAMED_RECORD);
+                    writeString(out, type.getName());
+                }
+                var info = recordInfo(type);
+                for (var i = 0; i < info.types.length; i++) write(out, info.get(i, record), info.types[i]);
+            }
+            case List<?> list -> {
+                out.writeByte(LIST);
+                writeVarLong(out, list.size());
+                for (var element : list) write(out, element, Object.class);
+            }
+            case Set<?> set -> {
+                out.writeByte(SET);
+                writeVarLong(out, set.size());
+                for (var element : set) write(out, element, Object.class);
+            }
+            case Map<?, ?> map -> {
+                out.writeByte(MAP);
+                writeVarLong(out, map.size());
+                for (var entry : map.entrySet()) {
+                    write(out, entry.getKey(), Object.class);
+                    write(out, entry.getValue(), Object.class);
+                }
+            }
+            case int[] ints -> {
+                out.writeByte(INTS);
+                writeVarLong(out, ints.length);
+                for (var number : ints) writeVarLong(out, zigZag(number));
+            }
+            case long[] longs -> {
+                out.writeByte(LONGS);
+                writeVarLong(out, longs.length);
+                for (var number : longs) writeVarLong(out, zigZag(number));
+            }
+            case double[] doubles -> {
+                out.writeByte(DOUBLES);
+                writeVarLong(out, doubles.length);
+                for (var number : doubles) out.writeDouble(number);
+            }
+            case Object[] array -> {
+                out.writeByte(ARRAY);
+                var component = array.getClass().getComponentType();
+                writeString(out, component.getName());
+                writeVarLong(out, array.length);
+                for (var element : array) write(out, element, component);
+            }
+            default -> throw new IOException("Unsupported type " + value.getClass().getName());
+        }
+    }
+
+    // Read a value of the declared type
+    private static Object read(DataInputStream in, Class<?> declared) throws IOException {
+        if (declared.isPrimitive()) return readPrimitive(in, declared);
+        var tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case TRUE -> true;
+            case FALSE -> false;
+            case BYTE -> in.readByte();
+            case SHORT -> in.readShort();
+            case CHAR -> in.readChar();
+            case INT -> (int) unZigZag(readVarLong(in));
+            case LONG -> unZigZag(readVarLong(in));
+            case FLOAT -> in.readFloat();
+            case DOUBLE -> in.readDouble();
+            case STRING -> readString(in);
+            case BYTES -> in.readNBytes(readCount(in, 1));
+            case UUID_VALUE -> new UUID(in.readLong(), in.readLong());
+            case ENUM -> readEnum(in, declared);
+            case NAMED_ENUM -> readEnum(in, resolve(readString(in), declared));
+            case RECORD -> readRecord(in, declared);
+            case NAMED_RECORD -> readRecord(in, resolve(readString(in), declared));
+            case LIST -> {
+                var size = readCount(in, 1);
+                var list = new ArrayList<>(size);
+                for (var i = 0; i < size; i++) list.add(read(in, Object.class));
+                yield list;
+            }
+            case SET -> {
+                var size = readCount(in, 1);
+                var set = new LinkedHashSet<>(size * 2);
+                for (var i = 0; i < size; i++) set.add(read(in, Object.class));
+                yield set;
+            }
+            case MAP -> {
+                var size = readCount(in, 2);
+                var map = new LinkedHashMap<>(size * 2);
+                for (var i = 0; i < size; i++) map.put(read(in, Object.class), read(in, Object.class));
+                yield map;
+            }
+            case INTS -> {
+                var ints = new int[readCount(in, 1)];
+                for (var i = 0; i < ints.length; i++) ints[i] = (int) unZigZag(readVarLong(in));
+                yield ints;
+            }
+            case LONGS -> {
+                var longs = new long[readCount(in, 1)];
+                for (var i = 0; i < longs.length; i++) longs[i] = unZigZag(readVarLong(in));
+                yield longs;
+            }
+            case DOUBLES -> {
+                var doubles = new double[readCount(in, Double.BYTES)];
+                for (var i = 0; i < doubles.length; i++) doubles[i] = in.readDouble();
+                yield doubles;
+            }
+            case ARRAY -> {
+                var component = resolveComponent(readString(in));
+                var array = (Object[]) Array.newInstance(component, readCount(in, 1));
+                for (var i = 0; i < array.length; i++) array[i] = read(in, component);
+                yield array;
+            }
+            default -> throw new IOException("Unknown type tag " + tag);
+        };
+    }
+
+    // Write primitive without tag
+    private static void writePrimitive(DataOutputStream out, Object value, Class<?> type) throws IOException {
+        if (type == int.class) writeVarLong(out, zigZag((Integer) value));
+        else if (type == long.class) writeVarLong(out, zigZag((Long) value));
+        else if (type == boolean.class) out.writeBoolean((Boolean) value);
+        else if (type == double.class) out.writeDouble((Double) value);
+        else if (type == float.class) out.writeFloat((Float) value);
+        else if (type == byte.class) out.writeByte((Byte) value);
+        else if (type == short.class) out.writeShort((Short) value);
+        else if (type == char.class) out.writeChar((Character) value);
+    }
+
+    // Read primitive without tag
+    private static Object readPrimitive(DataInputStream in, Class<?> type) throws IOException {
+        if (type == int.class) return (int) unZigZag(readVarLong(in));
+        if (type == long.class) return unZigZag(readVarLong(in));
+        if (type == boolean.class) return in.readBoolean();
+        if (type == double.class) return in.readDouble();
+        if (type == float.class) return in.readFloat();
+        if (type == byte.class) return in.readByte();
+        if (type == short.class) return in.readShort();
+        if (type == char.class) return in.readChar();
+        throw new IOException("Unsupported primitive " + type);
+    }
+
+    // Read enum constant by ordinal
+    private static Object readEnum(DataInputStream in, Class<?> type) throws IOException {
+        var constants = type.getEnumConstants();
+        if (constants == null) throw new IOException(type.getName() + " is not an enum");
+        var ordinal = readLength(in);
+        if (ordinal >= constants.length) throw new IOException("Invalid ordinal " + ordinal + " for " + type.getName());
+        return constants[ordinal];
+    }
+
+    // Read record components and call the canonical constructor
+    private static Object readRecord(DataInputStream in, Class<?> type) throws IOException {
+        if (!type.isRecord()) throw new IOException(type.getName() + " is not a record");
+        var info = recordInfo(type);
+        var arguments = new Object[info.types.length];
+        for (var i = 0; i < arguments.length; i++) arguments[i] = read(in, info.types[i]);
+        return info.create(arguments);
+    }
+
+    // Get cached record metadata
+    private static RecordInfo recordInfo(Class<?> type) throws IOException {
+        try {
+            return RECORDS.get(type);
+        } catch (IllegalStateException e) {
+            throw new IOException("Failed to inspect record " + type.getName(), e);
+        }
+    }
+
+    // Resolve a named type, only records and enums compatible with the declared type are accepted
+    private static Class<?> resolve(String name, Class<?> declared) throws IOException {
+        try {
+            var type = Class.forName(name, false, classLoader());
+            if (!(type.isRecord() || type.isEnum()) || !declared.isAssignableFrom(type)) throw new IOException("Type " + name + " is not allowed here");
+            return type;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown type " + name, e);
+        }
+    }
+
+    // Resolve an array component type, only the supported value types, records, enums and arrays of them are accepted
+    private static Class<?> resolveComponent(String name) throws IOException {
+        var known = COMPONENTS.get(name);
+        if (known != null) return known;
+        if (name.startsWith("[L") && name.endsWith(";")) return resolveComponent(name.substring(2, name.length() - 1)).arrayType();
+        if (name.startsWith("[[")) return resolveComponent(name.substring(1)).arrayType();
+        return resolve(name, Object.class);
+    }
+
+    private static ClassLoader classLoader() {
+        var loader = Thread.currentThread().getContextClassLoader();
+        return loader != null ? loader : BinarySerializer.class.getClassLoader();
+    }
+
+    // Box primitive types
+    private static Class<?> wrap(Class<?> type) {
+        return methodType(type).wrap().returnType();
+    }
+
+    // Strings as varint length and UTF-8 bytes
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        var bytes = string.getBytes(UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(readCount(in, 1)), UTF_8);
+    }
+
+    // Variable length encoding, 7 bits per byte
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (var shift = 0; shift < 64; shift += 7) {
+            var b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        var length = readVarLong(in);
+        if (length < 0 || length > Integer.MAX_VALUE - 8) throw new IOException("Invalid length " + length);
+        return (int) length;
+    }
+
+    // Length of a sequence whose elements take at least size bytes each, checked against the rest of the input before allocating
+    private static int readCount(DataInputStream in, int size) throws IOException {
+        var length = readLength(in);
+        if ((long) length * size > in.available()) throw new IOException("Length " + length + " exceeds the remaining input");
+        return length;
+    }
+
+    // Map signed to unsigned so small negative numbers stay short
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Component types, accessors and canonical constructor of a record
+    private record RecordInfo(Class<?>[] types, MethodHandle[] accessors, MethodHandle constructor) {
+
+        private static RecordInfo of(Class<?> type) {
+            try {
+                var lookup = MethodHandles.lookup();
+                var components = type.getRecordComponents();
+                var types = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+                var accessors = new MethodHandle[components.length];
+                for (var i = 0; i < components.length; i++) {
+                    var accessor = components[i].getAccessor();
+                    accessor.setAccessible(true);
+                    accessors[i] = lookup.unreflect(accessor).asType(methodType(Object.class, Object.class));
+                }
+                var constructor = type.getDeclaredConstructor(types);
+                constructor.setAccessible(true);
+                var handle = lookup.unreflectConstructor(constructor).asSpreader(Object[].class, types.length).asType(methodType(Object.class, Object[].class));
+                return new RecordInfo(types, accessors, handle);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private Object get(int index, Object record) throws IOException {
+            try {
+                return (Object) accessors[index].invokeExact(record);
+            } catch (Throwable e) {
+                throw new IOException("Failed to read record component", e);
+            }
+        }
+
+        private Object create(Object[] arguments) throws IOException {
+            try {
+                return (Object) constructor.invokeExact(arguments);
+            } catch (Throwable e) {
+                throw new IOException("Failed to create record", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package de.MCmoderSD.encryption.serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+// Standard Java serialization, compatible with Encryption.serialize and deserialize
+public class JavaSerializer implements Serializer {
+
+    // Instance
+    public static final JavaSerializer INSTANCE = new JavaSerializer();
+
+    @Override
+    public void serialize(Object object, OutputStream outputStream) throws IOException {
+        var oos = new ObjectOutputStream(outputStream);
+        oos.writeObject(object);
+        oos.flush();
+    }
+
+    @Override
+    public <T> T deserialize(InputStream inputStream, Class<T> type) throws IOException {
+        try {
+            return type.cast(new ObjectInputStream(inputStream).readObject());
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Failed to read " + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package de.MCmoderSD.encryption.serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Pluggable object serialization used by Encryption.encryptObject and decryptObject
+public interface Serializer {
+
+    // Write the object to the stream
+    void serialize(Object object, OutputStream outputStream) throws IOException;
+
+    // Read an object of the given type from the stream
+    <T> T deserialize(InputStream inputStream, Class<T> type) throws IOException;
+}
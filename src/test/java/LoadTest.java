@@ -0,0 +1,239 @@
+import de.MCmoderSD.encryption.core.Encryption;
+import de.MCmoderSD.encryption.enums.Hash;
+import de.MCmoderSD.encryption.enums.Transformer;
+import de.MCmoderSD.encryption.metrics.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Sustained load on one shared Encryption instance, reports throughput, latency percentiles, allocation rate and heap growth
+// Arguments as key=value, for example: threads=256 virtual=true duration=PT1H interval=PT30S mix=encrypt:45,decrypt:45,object:10 sizes=64:70,1024:25,65536:5
+@SuppressWarnings("ALL")
+public class LoadTest {
+
+    // Operations
+    private static final String[] OPERATIONS = {"encrypt", "decrypt", "object"};
+    private static final int ENCRYPT = 0;
+    private static final int DECRYPT = 1;
+    private static final int OBJECT = 2;
+
+    // Payload for the object path
+    public record Account(long id, String owner, String note) {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        // Parse arguments
+        var config = new HashMap<String, String>();
+        for (var arg : args) {
+            var split = arg.indexOf('=');
+            if (split < 0) throw new IllegalArgumentException("Expected key=value: " + arg);
+            config.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+
+        // Configuration
+        var threads = Integer.parseInt(config.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors() * 4)));
+        var virtual = Boolean.parseBoolean(config.getOrDefault("virtual", "true"));
+        var duration = Duration.parse(config.getOrDefault("duration", "PT1M"));
+        var interval = Duration.parse(config.getOrDefault("interval", "PT10S"));
+        var mix = weights(config.getOrDefault("mix", "encrypt:45,decrypt:45,object:10"), OPERATIONS);
+        var sizes = parseSizes(config.getOrDefault("sizes", "64:70,1024:25,16384:5"));
+        var distinct = Integer.parseInt(config.getOrDefault("distinct", "1024"));
+        var transformer = Transformer.valueOf(config.getOrDefault("transformer", "AES_GCM_NOPAD"));
+
+        // Shared instance
+        var encryption = new Encryption("load-test-password", StandardCharsets.UTF_8, Hash.SHA256, transformer);
+
+        // Payloads: distinct plaintexts per size so caches keep growing, plus matching ciphertexts for the decrypt path
+        var random = new SplittableRandom(42);
+        var plaintexts = new String[sizes.size()][distinct];
+        var ciphertexts = new String[sizes.size()][distinct];
+        var accounts = new Account[distinct];
+        for (var s = 0; s < sizes.size(); s++) {
+            for (var i = 0; i < distinct; i++) {
+                plaintexts[s][i] = randomString(random, sizes.get(s)[0]);
+                ciphertexts[s][i] = encryption.encrypt(plaintexts[s][i]);
+            }
+        }
+        for (var i = 0; i < distinct; i++) accounts[i] = new Account(i, "owner-" + i, randomString(random, 64));
+        var sizeWeights = new int[sizes.size()];
+        for (var s = 0; s < sizeWeights.length; s++) sizeWeights[s] = sizes.get(s)[1];
+
+        // Recording, interval histograms are swapped out at every report
+        var totals = newHistograms();
+        var intervals = new IntervalRecorder();
+        var errors = new LongAdder();
+
+        IO.println("threads=" + threads + " virtual=" + virtual + " duration=" + duration + " transformer=" + transformer + " mix=" + config.getOrDefault("mix", "encrypt:45,decrypt:45,object:10") + " sizes=" + config.getOrDefault("sizes", "64:70,1024:25,16384:5") + " distinct=" + distinct);
+
+        // Workers
+        var deadline = System.nanoTime() + duration.toNanos();
+        var done = new CountDownLatch(threads);
+        var builder = virtual ? Thread.ofVirtual().name("load-", 0) : Thread.ofPlatform().name("load-", 0).daemon(true);
+        for (var t = 0; t < threads; t++) {
+            var seed = random.nextLong();
+            builder.start(() -> {
+                var local = new SplittableRandom(seed);
+                try {
+                    while (System.nanoTime() < deadline) {
+                        var operation = pick(local, mix);
+                        var size = pick(local, sizeWeights);
+                        var index = local.nextInt(distinct);
+                        var start = System.nanoTime();
+                        try {
+                            switch (operation) {
+                                case ENCRYPT -> encryption.encrypt(plaintexts[size][index]);
+                                case DECRYPT -> encryption.decrypt(ciphertexts[size][index]);
+                                case OBJECT -> encryption.decryptObject(encryption.encryptObject(accounts[index]), Account.class);
+                            }
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                            continue;
+                        }
+                        var latency = System.nanoTime() - start;
+                        totals[operation].record(latency);
+                        intervals.record(operation, latency);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        // Report every interval until all workers are done
+        var memory = ManagementFactory.getMemoryMXBean();
+        var startHeap = liveHeap();
+        var started = System.nanoTime();
+        var lastTime = started;
+        var lastAllocated = allocatedBytes();
+        var finished = false;
+        while (!finished) {
+            finished = done.await(interval.toMillis(), TimeUnit.MILLISECONDS);
+            var now = System.nanoTime();
+            var allocated = allocatedBytes();
+            var seconds = (now - lastTime) / 1e9;
+            var snapshot = intervals.swap();
+            var line = new StringBuilder(String.format("[%6.0fs]", (now - started) / 1e9));
+            for (var i = 0; i < OPERATIONS.length; i++) line.append(String.format(" %s %.0f ops/s p50=%s p99=%s", OPERATIONS[i], snapshot[i].getCount() / seconds, micros(snapshot[i].getValueAtPercentile(50)), micros(snapshot[i].getValueAtPercentile(99))));
+            line.append(String.format(" | alloc %.1f MB/s heap %d MB live %d MB | cache %d/%d entries", (allocated - lastAllocated) / seconds / 1e6, memory.getHeapMemoryUsage().getUsed() >> 20, liveHeap() >> 20, encryption.getEncryptCache().size(), encryption.getDecryptCache().size()));
+            IO.println(line);
+            lastTime = now;
+            lastAllocated = allocated;
+        }
+
+        // Summary
+        var elapsed = (System.nanoTime() - started) / 1e9;
+        IO.println("\n --- Summary (" + String.format("%.0f", elapsed) + "s) --- \n");
+        for (var i = 0; i < OPERATIONS.length; i++) {
+            var histogram = totals[i];
+            if (histogram.getCount() == 0) continue;
+            IO.println(String.format("%-8s %10d ops %10.0f ops/s  mean=%s p50=%s p99=%s p999=%s max=%s", OPERATIONS[i], histogram.getCount(), histogram.getCount() / elapsed, micros((long) histogram.getMean()), micros(histogram.getValueAtPercentile(50)), micros(histogram.getValueAtPercentile(99)), micros(histogram.getValueAtPercentile(99.9)), micros(histogram.getMax())));
+        }
+        IO.println(String.format("errors %d | heap growth %+d MB live after GC | encrypt cache hit rate %.2f, decrypt cache hit rate %.2f", errors.sum(), (liveHeap() - startHeap) >> 20, encryption.getEncryptCache().getHitRate(), encryption.getDecryptCache().getHitRate()));
+    }
+
+    // Interval histograms with a writer reader phaser, the reporter swaps in fresh ones and waits
+    // until every worker that could still hold the old ones has finished its record call
+    private static final class IntervalRecorder {
+
+        private final AtomicLong startEpoch = new AtomicLong();
+        private final AtomicLong evenEndEpoch = new AtomicLong();
+        private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+        private volatile Histogram[] active = newHistograms();
+
+        // Workers, wait free
+        private void record(int operation, long latency) {
+            var epoch = startEpoch.getAndIncrement();
+            try {
+                active[operation].record(latency);
+            } finally {
+                (epoch < 0 ? oddEndEpoch : evenEndEpoch).getAndIncrement();
+            }
+        }
+
+        // Reporter only, returns the histograms of the finished interval with no sample lost
+        private Histogram[] swap() {
+            var previous = active;
+            active = newHistograms();
+            var nextEven = startEpoch.get() < 0;
+            var initial = nextEven ? 0 : Long.MIN_VALUE;
+            (nextEven ? evenEndEpoch : oddEndEpoch).set(initial);
+            var startAtFlip = startEpoch.getAndSet(initial);
+            while ((nextEven ? oddEndEpoch : evenEndEpoch).get() != startAtFlip) Thread.onSpinWait();
+            return previous;
+        }
+    }
+
+    private static Histogram[] newHistograms() {
+        var histograms = new Histogram[OPERATIONS.length];
+        for (var i = 0; i < histograms.length; i++) histograms[i] = new Histogram();
+        return histograms;
+    }
+
+    // Parse name:weight pairs in the order of names
+    private static int[] weights(String value, String[] names) {
+        var weights = new int[names.length];
+        for (var pair : value.split(",")) {
+            var parts = pair.split(":");
+            var index = Arrays.asList(names).indexOf(parts[0].trim());
+            if (index < 0) throw new IllegalArgumentException("Unknown operation " + parts[0]);
+            weights[index] = Integer.parseInt(parts[1].trim());
+        }
+        return weights;
+    }
+
+    // Parse size:weight pairs
+    private static ArrayList<int[]> parseSizes(String value) {
+        var sizes = new ArrayList<int[]>();
+        for (var pair : value.split(",")) {
+            var parts = pair.split(":");
+            sizes.add(new int[] {Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())});
+        }
+        return sizes;
+    }
+
+    // Weighted random index
+    private static int pick(SplittableRandom random, int[] weights) {
+        var total = 0;
+        for (var weight : weights) total += weight;
+        var value = random.nextInt(total);
+        for (var i = 0; i < weights.length; i++) if ((value -= weights[i]) < 0) return i;
+        return weights.length - 1;
+    }
+
+    private static String randomString(SplittableRandom random, int length) {
+        var chars = new char[length];
+        for (var i = 0; i < length; i++) chars[i] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1fµs", nanos / 1000d);
+    }
+
+    // Bytes allocated by all live threads, virtual thread allocations count towards their carriers
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) return bean.getTotalThreadAllocatedBytes();
+        return 0;
+    }
+
+    // Heap in use right after the last collection, tracks growth of the live set rather than garbage
+    private static long liveHeap() {
+        var live = 0L;
+        for (var pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || pool.getCollectionUsage() == null) continue;
+            live += pool.getCollectionUsage().getUsed();
+        }
+        return live;
+    }
+}
@@ -0,0 +1,172 @@
+import de.MCmoderSD.encryption.core.AuthenticatedEncryption;
+import de.MCmoderSD.encryption.core.Compression;
+import de.MCmoderSD.encryption.core.Encryption;
+import de.MCmoderSD.encryption.enums.Hash;
+import de.MCmoderSD.encryption.enums.Transformer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+
+// Encrypts and decrypts through every API surface for every Transformer, fails if anything does not round trip
+@SuppressWarnings("ALL")
+public class RoundTripTest {
+
+    // Lengths around block and nonce boundaries, aligned transformers only get whole blocks
+    private static final int[] LENGTHS = {0, 1, 12, 13, 15, 16, 17, 63, 64, 65, 300, 4096};
+
+    private static final String password = "round-trip-password";
+    private static int failures;
+
+    // Payload for the object path
+    public record Account(long id, String owner, byte[] data) {
+    }
+
+    public static void main(String[] args) {
+        var random = new Random(42);
+        for (var transformer : Transformer.values()) {
+            var encryption = new Encryption(password, StandardCharsets.UTF_8, Hash.SHA256, transformer);
+            var compressed = compressed(transformer);
+            for (var length : LENGTHS) {
+                if (transformer.requiresAlignedInput() && length % transformer.getAlgorithm().getBlockSize() != 0) continue;
+                var bytes = new byte[length];
+                random.nextBytes(bytes);
+                var string = ascii(random, length);
+                check(transformer, "String", length, () -> string.equals(encryption.decrypt(encryption.encrypt(string))));
+                check(transformer, "String to byte[]", length, () -> string.equals(new String(encryption.decrypt(java.util.Base64.getDecoder().decode(encryption.encrypt(string))), StandardCharsets.UTF_8)));
+                check(transformer, "byte[]", length, () -> Arrays.equals(bytes, encryption.decrypt(encryption.encrypt(bytes))));
+                check(transformer, "range", length, () -> range(encryption, bytes));
+                check(transformer, "range in place", length, () -> rangeInPlace(encryption, bytes));
+                check(transformer, "ByteBuffer", length, () -> byteBuffer(encryption, bytes, false));
+                check(transformer, "direct ByteBuffer", length, () -> byteBuffer(encryption, bytes, true));
+                check(transformer, "stream", length, () -> stream(encryption, bytes));
+                check(transformer, "byte[] to stream", length, () -> Arrays.equals(bytes, readAll(encryption.decryptingInputStream(new ByteArrayInputStream(encryption.encrypt(bytes))))));
+                check(transformer, "stream to byte[]", length, () -> Arrays.equals(bytes, encryption.decrypt(streamEncrypt(encryption::encryptingOutputStream, bytes))));
+                if (compressed != null) {
+                    var authenticated = new AuthenticatedEncryption(compressed);
+                    check(transformer, "compressed String", length, () -> string.equals(compressed.decrypt(compressed.encrypt(string))));
+                    check(transformer, "compressed byte[]", length, () -> Arrays.equals(bytes, compressed.decrypt(compressed.encrypt(bytes))));
+                    check(transformer, "compressed stream", length, () -> stream(compressed, bytes));
+                    check(transformer, "compressed object", length, () -> object(compressed, new Account(length, string, bytes)));
+                    check(transformer, "compressed byte[] to stream", length, () -> Arrays.equals(bytes, readAll(compressed.decryptingInputStream(new ByteArrayInputStream(compressed.encrypt(bytes))))));
+                    check(transformer, "compressed stream to byte[]", length, () -> Arrays.equals(bytes, compressed.decrypt(streamEncrypt(compressed::encryptingOutputStream, bytes))));
+                    check(transformer, "authenticated byte[] to stream", length, () -> Arrays.equals(bytes, readAll(authenticated.decryptingInputStream(new ByteArrayInputStream(authenticated.encrypt(bytes))))));
+                    check(transformer, "authenticated stream to byte[]", length, () -> Arrays.equals(bytes, authenticated.decrypt(streamEncrypt(authenticated::encryptingOutputStream, bytes))));
+                }
+
+                // Serialized objects have arbitrary lengths, aligned transformers only take whole blocks
+                if (transformer.requiresAlignedInput()) continue;
+                check(transformer, "object", length, () -> object(encryption, new Account(length, string, bytes)));
+            }
+        }
+        IO.println(failures == 0 ? "All round trips passed" : failures + " round trips failed");
+        if (failures > 0) throw new IllegalStateException(failures + " round trips failed");
+    }
+
+    // Compressing instance, aligned transformers must reject compression because the compressed length would decide whether a call fails
+    private static Encryption compressed(Transformer transformer) {
+        try {
+            var encryption = new Encryption(password, StandardCharsets.UTF_8, Hash.SHA256, transformer, new Compression(Compression.DEFAULT_LEVEL, 64));
+            if (transformer.requiresAlignedInput()) {
+                System.err.println(transformer + " | compression: accepted");
+                failures++;
+            }
+            return encryption;
+        } catch (IllegalArgumentException e) {
+            if (!transformer.requiresAlignedInput()) {
+                System.err.println(transformer + " | compression: " + e);
+                failures++;
+            }
+            return null;
+        }
+    }
+
+    // Encrypt into an offset of a larger array and decrypt back out of it
+    private static boolean range(Encryption encryption, byte[] bytes) {
+        var encrypted = new byte[3 + encryption.outputSize(bytes.length)];
+        var length = encryption.encrypt(bytes, 0, bytes.length, encrypted, 3);
+        var decrypted = new byte[encryption.decryptOutputSize(length) + 5];
+        var written = encryption.decrypt(encrypted, 3, length, decrypted, 5);
+        return Arrays.equals(bytes, Arrays.copyOfRange(decrypted, 5, 5 + written));
+    }
+
+    // Encrypt and decrypt within one array, input and output overlap
+    private static boolean rangeInPlace(Encryption encryption, byte[] bytes) {
+        var buffer = Arrays.copyOf(bytes, encryption.outputSize(bytes.length));
+        var length = encryption.encrypt(buffer, 0, bytes.length, buffer, 0);
+        var written = encryption.decrypt(buffer, 0, length, buffer, 0);
+        return Arrays.equals(bytes, Arrays.copyOf(buffer, written));
+    }
+
+    private static boolean byteBuffer(Encryption encryption, byte[] bytes, boolean direct) {
+        var plain = allocate(bytes.length, direct).put(bytes).flip();
+        var encrypted = allocate(encryption.outputSize(bytes.length), direct);
+        encryption.encrypt(plain, encrypted);
+        var decrypted = allocate(encryption.decryptOutputSize(encrypted.flip().remaining()), direct);
+        encryption.decrypt(encrypted, decrypted);
+        var result = new byte[decrypted.flip().remaining()];
+        decrypted.get(result);
+        return Arrays.equals(bytes, result);
+    }
+
+    // Write in uneven pieces, read back in one go
+    private static boolean stream(Encryption encryption, byte[] bytes) {
+        var encrypted = streamEncrypt(encryption::encryptingOutputStream, bytes);
+        return Arrays.equals(bytes, readAll(encryption.decryptingInputStream(new ByteArrayInputStream(encrypted))));
+    }
+
+    // Write in uneven pieces through an encrypting stream, returns the ciphertext
+    private static byte[] streamEncrypt(Function<OutputStream, OutputStream> encrypting, byte[] bytes) {
+        var encrypted = new ByteArrayOutputStream();
+        try (var output = encrypting.apply(encrypted)) {
+            for (var offset = 0; offset < bytes.length; offset += 7) output.write(bytes, offset, Math.min(7, bytes.length - offset));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stream data", e);
+        }
+        return encrypted.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream decrypting) {
+        try (var input = decrypting) {
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stream data", e);
+        }
+    }
+
+    private static boolean object(Encryption encryption, Account account) {
+        var decrypted = encryption.decryptObject(encryption.encryptObject(account), Account.class);
+        return decrypted.id() == account.id() && decrypted.owner().equals(account.owner()) && Arrays.equals(decrypted.data(), account.data());
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static String ascii(Random random, int length) {
+        var chars = new char[length];
+        for (var i = 0; i < length; i++) chars[i] = (char) (' ' + random.nextInt(95));
+        return new String(chars);
+    }
+
+    private static void check(Transformer transformer, String surface, int length, Check check) {
+        try {
+            if (check.run()) return;
+            System.err.println(transformer + " | " + surface + " | " + length + " bytes: mismatch");
+        } catch (RuntimeException e) {
+            System.err.println(transformer + " | " + surface + " | " + length + " bytes: " + e);
+        }
+        failures++;
+    }
+
+    private interface Check {
+        boolean run();
+    }
+}
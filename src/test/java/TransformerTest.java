@@ -70,6 +70,11 @@ public class TransformerTest {
                     System.arraycopy(keyBytes, 0, key, 0, Math.min(keyBytes.length, 24));
                     yield key;
                 }
+                case "ChaCha20" -> {
+                    var key = new byte[32];
+                    System.arraycopy(keyBytes, 0, key, 0, Math.min(keyBytes.length, 32));
+                    yield key;
+                }
                 default -> throw new IllegalStateException("Unexpected value: " + algorithm);
             };
 